@@ -0,0 +1,168 @@
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 접속 허용 판정. 수락 스레드가 ClientHandler 를 만들기 전에 불러, 넘치는 연결은 풀에 넣지 않고 바로 돌려보낸다.
+ * 전체 동시 연결 수, 주소별 동시 연결 수, 주소별 접속 속도(토큰 버킷)를 본다.
+ * 루프백 주소(같은 머신의 게이트웨이나 로컬 테스트)와 신뢰하는 프록시 주소는 주소별 제한에서 뺀다.
+ * 게이트웨이 뒤의 노드에는 모든 플레이어가 게이트웨이 주소 하나로 보이기 때문이다. 전체 상한에는 그대로 센다.
+ *
+ * tryAdmit 이 null 을 돌려준 연결은 끝날 때 반드시 release 해야 한다.
+ */
+final class AdmissionControl {
+
+    // 연결도 없고 이 시간 동안 접속 시도도 없던 주소는 sweep 때 잊는다.
+    private static final long IDLE_PEER_NANOS = 60_000_000_000L;
+
+    private static final class Peer {
+        int active;
+        long lastAttemptNanos;
+        final TokenBucket connects;
+
+        Peer(TokenBucket connects) {
+            this.connects = connects;
+        }
+    }
+
+    private final int maxConnections;
+    private final int maxPerAddress;
+    private final double connectsPerSecond;
+    private final int connectBurst;
+    private final LongSupplier clock;
+    private final Set<InetAddress> trustedProxies;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final Map<InetAddress, Peer> peers = new ConcurrentHashMap<>();
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejectedFull = new AtomicLong();
+    private final AtomicLong rejectedPerAddress = new AtomicLong();
+    private final AtomicLong rejectedRate = new AtomicLong();
+
+    /**
+     * @param maxConnections    전체 동시 연결 상한
+     * @param maxPerAddress     주소별 동시 연결 상한. 0 이하면 제한 없음
+     * @param connectsPerSecond 주소별 초당 접속 허용 수. 0 이하면 제한 없음
+     * @param connectBurst      주소별로 몰아서 허용하는 접속 수
+     * @param trustedProxies    주소별 제한을 걸지 않는 프록시(게이트웨이) 주소
+     */
+    AdmissionControl(int maxConnections, int maxPerAddress, double connectsPerSecond, int connectBurst,
+                     Set<InetAddress> trustedProxies, LongSupplier clock) {
+        this.maxConnections = maxConnections;
+        this.maxPerAddress = maxPerAddress;
+        this.connectsPerSecond = connectsPerSecond;
+        this.connectBurst = connectBurst;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.clock = clock;
+    }
+
+    /**
+     * 받아들이면 null, 거절하면 클라이언트에게 보여 줄 이유.
+     */
+    String tryAdmit(InetAddress address) {
+        boolean limited = limitsAddress(address);
+        // 속도 제한은 자리가 있든 없든 시도마다 센다. 거절당한 재시도도 버킷을 비운다.
+        String[] reason = new String[1];
+        if (limited) {
+            long now = clock.getAsLong();
+            peers.compute(address, (a, peer) -> {
+                if (peer == null) {
+                    peer = new Peer(connectsPerSecond > 0 ? new TokenBucket(connectsPerSecond, connectBurst, clock) : null);
+                }
+                peer.lastAttemptNanos = now;
+                if (peer.connects != null && !peer.connects.tryAcquire()) {
+                    rejectedRate.incrementAndGet();
+                    reason[0] = "접속 시도가 너무 잦습니다. 잠시 후 다시 시도하세요.";
+                } else if (maxPerAddress > 0 && peer.active >= maxPerAddress) {
+                    rejectedPerAddress.incrementAndGet();
+                    reason[0] = "같은 주소에서 접속할 수 있는 수(" + maxPerAddress + ")를 넘었습니다.";
+                } else {
+                    peer.active++;
+                }
+                return peer;
+            });
+            if (reason[0] != null) {
+                return reason[0];
+            }
+        }
+
+        while (true) {
+            int current = active.get();
+            if (current >= maxConnections) {
+                if (limited) {
+                    releasePeer(address);
+                }
+                rejectedFull.incrementAndGet();
+                return "서버 인원이 가득 찼습니다 (" + maxConnections + "명). 잠시 후 다시 시도하세요.";
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                admitted.incrementAndGet();
+                return null;
+            }
+        }
+    }
+
+    void release(InetAddress address) {
+        active.decrementAndGet();
+        if (limitsAddress(address)) {
+            releasePeer(address);
+        }
+    }
+
+    private boolean limitsAddress(InetAddress address) {
+        return address != null && !address.isLoopbackAddress() && !trustedProxies.contains(address)
+                && (maxPerAddress > 0 || connectsPerSecond > 0);
+    }
+
+    private void releasePeer(InetAddress address) {
+        peers.computeIfPresent(address, (a, peer) -> {
+            peer.active--;
+            return peer;
+        });
+    }
+
+    /**
+     * 연결이 없고 한동안 시도도 없던 주소를 지운다. 지표 작업에서 주기적으로 부른다.
+     */
+    void sweep() {
+        long now = clock.getAsLong();
+        for (InetAddress address : peers.keySet()) {
+            peers.computeIfPresent(address,
+                    (a, peer) -> peer.active <= 0 && now - peer.lastAttemptNanos > IDLE_PEER_NANOS ? null : peer);
+        }
+    }
+
+    int active() {
+        return active.get();
+    }
+
+    int trackedAddresses() {
+        return peers.size();
+    }
+
+    int maxConnections() {
+        return maxConnections;
+    }
+
+    long admitted() {
+        return admitted.get();
+    }
+
+    // takeRejected* 는 지난 호출 이후의 수를 돌려주고 0 으로 되돌린다.
+    long takeRejectedFull() {
+        return rejectedFull.getAndSet(0);
+    }
+
+    long takeRejectedPerAddress() {
+        return rejectedPerAddress.getAndSet(0);
+    }
+
+    long takeRejectedRate() {
+        return rejectedRate.getAndSet(0);
+    }
+}
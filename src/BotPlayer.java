@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 서버 안에서 도는 봇 플레이어의 두뇌. 소켓 없이 서버가 보내는 메시지를 그대로 받아
+ * 상태를 갱신하고, 행동(투표/능력/채팅)은 공용 스케줄러에 예약해 명령 줄로 돌려준다.
+ * 봇마다 스레드를 두지 않으므로 수만 개를 동시에 돌려도 스레드 수는 그대로다.
+ */
+public class BotPlayer {
+
+    private static volatile GameClock clock = new GameClock.WallClock("bot-scheduler", 2);
+    // 행동 지연과 대상 선택에 쓰는 난수. null 이면 스레드별 난수를 쓰고, 재현이 필요한 실행은 useRandom 으로 시드를 준다.
+    private static volatile Random random = null;
+
+    private static final String[] DAY_CHATS = {
+            "누가 마피아일까요?", "어젯밤에 수상한 사람 있었나요?", "저는 시민입니다.", "일단 투표합시다.", "흠..."
+    };
+
+    private final int myNumber;
+    private final String name;
+    private final Consumer<String> commands;
+
+    private String myRole = "NONE";
+    private boolean alive = true;
+    private final List<Integer> alivePlayers = new ArrayList<>();
+    private final Set<Integer> teammates = new HashSet<>();
+    private final Set<Integer> knownMafia = new HashSet<>();
+    private final Set<Integer> investigated = new HashSet<>();
+    private int lastTarget = 0;
+    // 단계가 바뀌면 이전 단계에 예약한 행동은 무시한다.
+    private int phaseToken = 0;
+
+    public BotPlayer(int myNumber, String name, Consumer<String> commands) {
+        this.myNumber = myNumber;
+        this.name = name;
+        this.commands = commands;
+    }
+
+    /**
+     * 봇 행동 예약에 쓸 시계. 가상 시계를 넣으면 봇도 가상 시간에 맞춰 움직인다.
+     */
+    static void useClock(GameClock gameClock) {
+        clock = gameClock;
+    }
+
+    /**
+     * 봇 행동에 쓸 난수. 시드를 준 Random 과 가상 시계를 함께 넣으면 봇 행동이 실행마다 같다.
+     */
+    static void useRandom(Random seeded) {
+        random = seeded;
+    }
+
+    private static Random random() {
+        Random r = random;
+        return r != null ? r : ThreadLocalRandom.current();
+    }
+
+    /**
+     * 서버가 이 봇에게 보낸 메시지. 호출한 쪽이 락을 잡고 있을 수 있으므로 여기서는 상태만 갱신한다.
+     */
+    public synchronized void onMessage(String msg) {
+        if (msg.startsWith("TIMER:")) {
+            return;
+        }
+
+        if (msg.startsWith("START_GAME") || msg.startsWith("GAME_OVER")) {
+            myRole = "NONE";
+            alive = true;
+            teammates.clear();
+            knownMafia.clear();
+            investigated.clear();
+            phaseToken++;
+        } else if (msg.equals("YOU_DIED")) {
+            alive = false;
+        } else if (msg.startsWith("PLAYERS_LIST:")) {
+            alivePlayers.clear();
+            for (String p : msg.substring("PLAYERS_LIST:".length()).split(",")) {
+                int dash = p.indexOf(" -");
+                if (p.startsWith("P") && dash > 1 && p.contains("(생존)")) {
+                    int number = parseNumber(p, 1, dash);
+                    if (number > 0) alivePlayers.add(number);
+                }
+            }
+        } else if (msg.startsWith("SYSTEM:")) {
+            onSystem(msg.substring("SYSTEM:".length()));
+        }
+    }
+
+    private void onSystem(String text) {
+        if (text.startsWith("[역할] 당신은 '")) {
+            int start = text.indexOf('\'') + 1;
+            int end = text.lastIndexOf('\'');
+            if (end > start) myRole = text.substring(start, end);
+            if ("MAFIA".equals(myRole)) teammates.add(myNumber);
+        } else if (text.startsWith("밤이 되었습니다")) {
+            int token = ++phaseToken;
+            later(2, 10, () -> actAtNight(token));
+        } else if (text.startsWith("낮이 되었습니다")) {
+            int token = ++phaseToken;
+            later(5, 30, () -> voteAtDay(token));
+            if (random().nextInt(3) == 0) {
+                later(1, 10, () -> chat(token));
+            }
+        } else if (text.startsWith("[마피아 알림] ")) {
+            int p = text.indexOf("(P");
+            int close = text.indexOf(')', p);
+            if (p > 0 && close > p) teammates.add(parseNumber(text, p + 2, close));
+        } else if (text.startsWith("동료 마피아를 죽일 수 없습니다")) {
+            teammates.add(lastTarget);
+            int token = phaseToken;
+            later(1, 3, () -> actAtNight(token));
+        } else if (text.startsWith("[조사결과] P")) {
+            int space = text.indexOf(' ', "[조사결과] P".length());
+            int number = parseNumber(text, "[조사결과] P".length(), space);
+            if (text.contains("[마피아]")) knownMafia.add(number);
+        }
+    }
+
+    // 아래 행동 메서드는 보낼 명령만 만들어 돌려준다. 명령 전송은 이 객체의 락 밖에서 한다.
+    private synchronized String actAtNight(int token) {
+        if (token != phaseToken || !alive) return null;
+        int target;
+        switch (myRole) {
+            case "MAFIA":
+                target = pick(teammates);
+                break;
+            case "POLICE":
+                Set<Integer> skip = new HashSet<>(investigated);
+                skip.add(myNumber);
+                target = pick(skip);
+                if (target > 0) investigated.add(target);
+                break;
+            case "DOCTOR":
+                target = pick(new HashSet<>());
+                break;
+            default:
+                return null;
+        }
+        if (target <= 0) return null;
+        lastTarget = target;
+        return "/skill " + target;
+    }
+
+    private synchronized String voteAtDay(int token) {
+        if (token != phaseToken || !alive) return null;
+        int target = 0;
+        for (int suspect : knownMafia) {
+            if (alivePlayers.contains(suspect)) {
+                target = suspect;
+                break;
+            }
+        }
+        if (target == 0) {
+            Set<Integer> skip = new HashSet<>(teammates);
+            skip.add(myNumber);
+            target = pick(skip);
+        }
+        return target > 0 ? "/vote " + target : null;
+    }
+
+    private synchronized String chat(int token) {
+        if (token != phaseToken || !alive) return null;
+        String line = DAY_CHATS[random().nextInt(DAY_CHATS.length)];
+        return "CHAT:" + name + ":" + line;
+    }
+
+    private int pick(Set<Integer> exclude) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int p : alivePlayers) {
+            if (!exclude.contains(p)) candidates.add(p);
+        }
+        if (candidates.isEmpty()) return 0;
+        return candidates.get(random().nextInt(candidates.size()));
+    }
+
+    private void later(int minSeconds, int maxSeconds, Supplier<String> action) {
+        long delay = random().nextLong(minSeconds * 1000L, maxSeconds * 1000L);
+        clock.schedule(() -> {
+            try {
+                String command = action.get();
+                if (command != null) {
+                    commands.accept(command);
+                }
+            } catch (Exception e) {
+                System.err.println("봇 행동 처리 중 오류: " + e.getMessage());
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static int parseNumber(String s, int from, int to) {
+        if (from < 0 || to > s.length() || from >= to) return 0;
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return 0;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+}
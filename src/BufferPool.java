@@ -0,0 +1,66 @@
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 같은 크기 ByteBuffer 의 공용 풀. 연결마다 버퍼를 들고 있지 않고 실제로 읽고 쓰는 동안만 빌린다.
+ * 돌려받은 버퍼는 maxPooled 개까지만 보관하고 나머지는 GC 에 맡긴다.
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final boolean direct;
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong allocated = new AtomicLong();
+
+    BufferPool(int bufferSize, int maxPooled, boolean direct) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        this.direct = direct;
+    }
+
+    /**
+     * 비워진(position 0, limit = capacity) 버퍼를 빌려준다.
+     */
+    ByteBuffer acquire() {
+        acquired.incrementAndGet();
+        ByteBuffer buffer = free.poll();
+        if (buffer != null) {
+            freeCount.decrementAndGet();
+            return buffer;
+        }
+        allocated.incrementAndGet();
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (freeCount.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else {
+            freeCount.decrementAndGet();
+        }
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    int pooled() {
+        return freeCount.get();
+    }
+
+    long acquired() {
+        return acquired.get();
+    }
+
+    long allocated() {
+        return allocated.get();
+    }
+}
@@ -0,0 +1,208 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 금칙어 필터. 금칙어 목록을 Aho-Corasick 오토마톤으로 미리 컴파일해 두고 메시지를 한 번만 훑어
+ * 걸린 부분을 '*' 로 가린다. 금칙어 수와 상관없이 메시지 길이에 비례하는 시간만 든다.
+ *
+ * 목록 파일이 바뀌면 새 오토마톤을 따로 만든 뒤 참조만 바꾸므로 채팅 중계는 멈추지 않는다.
+ * 파일 형식: 한 줄에 금칙어 하나, '#' 으로 시작하는 줄은 주석. 대소문자는 구분하지 않는다.
+ */
+public class ChatFilter {
+
+    private static final char MASK = '*';
+
+    private final Path file;
+    private volatile Automaton automaton = Automaton.compile(List.of());
+    private volatile long loadedModified = -1;
+
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder masked = new LongAdder();
+
+    private final ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "chat-filter-reload");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ChatFilter(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 지금 목록을 읽고, 이후 주기적으로 파일 수정 시각을 확인해 바뀌었으면 다시 읽는다.
+     */
+    public void startWatching(long periodSeconds) {
+        reloadIfChanged();
+        watcher.scheduleWithFixedDelay(this::reloadIfChanged, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public void reloadIfChanged() {
+        try {
+            long modified = Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+            if (modified == loadedModified) {
+                return;
+            }
+            List<String> patterns = new ArrayList<>();
+            if (modified != 0) {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String p = line.trim();
+                    if (!p.isEmpty() && !p.startsWith("#")) patterns.add(p);
+                }
+            }
+            long start = System.nanoTime();
+            Automaton next = Automaton.compile(patterns);
+            automaton = next;
+            loadedModified = modified;
+            System.out.println("금칙어 " + patterns.size() + "개 적용 (상태 " + next.stateCount() + "개, 컴파일 "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("금칙어 목록 로드 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 걸린 부분을 가린 메시지. 걸린 것이 없으면 같은 String 객체를 그대로 돌려준다.
+     */
+    public String filter(String text) {
+        checked.increment();
+        String result = automaton.mask(text);
+        if (result != text) {
+            masked.increment();
+        }
+        return result;
+    }
+
+    public void replacePatterns(List<String> patterns) {
+        automaton = Automaton.compile(patterns);
+    }
+
+    public String metrics() {
+        return "검사 " + checked.sum() + "건, 가림 " + masked.sum() + "건, 금칙어 상태 " + automaton.stateCount() + "개";
+    }
+
+    /**
+     * 컴파일된 불변 오토마톤. 상태별 전이는 정렬된 문자 배열 + 이진 탐색으로 찾는다.
+     */
+    static final class Automaton {
+        private final char[][] keys;
+        private final int[][] targets;
+        private final int[] fail;
+        // 이 상태에서 끝나는 가장 긴 금칙어 길이 (실패 링크로 이어진 것 포함), 없으면 0
+        private final int[] matchLength;
+
+        private Automaton(char[][] keys, int[][] targets, int[] fail, int[] matchLength) {
+            this.keys = keys;
+            this.targets = targets;
+            this.fail = fail;
+            this.matchLength = matchLength;
+        }
+
+        int stateCount() {
+            return fail.length;
+        }
+
+        static Automaton compile(List<String> patterns) {
+            // 1) trie
+            List<Map<Character, Integer>> edges = new ArrayList<>();
+            List<Integer> own = new ArrayList<>();
+            edges.add(new HashMap<>());
+            own.add(0);
+            for (String pattern : patterns) {
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    char c = Character.toLowerCase(pattern.charAt(i));
+                    Integer next = edges.get(state).get(c);
+                    if (next == null) {
+                        next = edges.size();
+                        edges.add(new HashMap<>());
+                        own.add(0);
+                        edges.get(state).put(c, next);
+                    }
+                    state = next;
+                }
+                own.set(state, Math.max(own.get(state), pattern.length()));
+            }
+
+            // 2) 배열로 옮기기
+            int n = edges.size();
+            char[][] keys = new char[n][];
+            int[][] targets = new int[n][];
+            for (int s = 0; s < n; s++) {
+                Map<Character, Integer> e = edges.get(s);
+                char[] k = new char[e.size()];
+                int i = 0;
+                for (char c : e.keySet()) k[i++] = c;
+                Arrays.sort(k);
+                int[] t = new int[k.length];
+                for (i = 0; i < k.length; i++) t[i] = e.get(k[i]);
+                keys[s] = k;
+                targets[s] = t;
+            }
+
+            // 3) BFS 로 실패 링크와 출력 길이 계산
+            int[] fail = new int[n];
+            int[] matchLength = new int[n];
+            int[] queue = new int[n];
+            int head = 0;
+            int tail = 0;
+            for (int child : targets[0]) {
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+            for (int s = 0; s < n; s++) matchLength[s] = own.get(s);
+            while (head < tail) {
+                int s = queue[head++];
+                matchLength[s] = Math.max(matchLength[s], matchLength[fail[s]]);
+                for (int i = 0; i < keys[s].length; i++) {
+                    char c = keys[s][i];
+                    int child = targets[s][i];
+                    int f = fail[s];
+                    int next;
+                    while ((next = step(keys, targets, f, c)) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = (next >= 0) ? next : 0;
+                    queue[tail++] = child;
+                }
+            }
+            return new Automaton(keys, targets, fail, matchLength);
+        }
+
+        private static int step(char[][] keys, int[][] targets, int state, char c) {
+            int i = Arrays.binarySearch(keys[state], c);
+            return i >= 0 ? targets[state][i] : -1;
+        }
+
+        String mask(String text) {
+            char[] out = null;
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = Character.toLowerCase(text.charAt(i));
+                int next;
+                while ((next = step(keys, targets, state, c)) < 0 && state != 0) {
+                    state = fail[state];
+                }
+                state = (next >= 0) ? next : 0;
+
+                int len = matchLength[state];
+                if (len > 0) {
+                    if (out == null) out = text.toCharArray();
+                    for (int j = i - len + 1; j <= i; j++) out[j] = MASK;
+                }
+            }
+            return out == null ? text : new String(out);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 금칙어 필터 처리량 측정. 무작위 한글/영문 금칙어 N 개로 오토마톤을 만들고
+ * 채팅과 비슷한 길이의 메시지를 스레드 1개(코어당)와 전체 코어로 걸러 본다.
+ *
+ * 실행: java ChatFilterBench [금칙어 수] [스레드당 메시지 수]
+ */
+public class ChatFilterBench {
+
+    public static void main(String[] args) throws Exception {
+        int patternCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Random random = new Random(7);
+
+        List<String> patterns = new ArrayList<>(patternCount);
+        for (int i = 0; i < patternCount; i++) {
+            patterns.add(word(random, 3 + random.nextInt(4)));
+        }
+        String[] samples = new String[1024];
+        for (int i = 0; i < samples.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            int words = 3 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) sb.append(' ');
+                // 가끔 금칙어가 섞인다.
+                sb.append(random.nextInt(20) == 0 ? patterns.get(random.nextInt(patternCount)) : word(random, 1 + random.nextInt(4)));
+            }
+            samples[i] = sb.toString();
+        }
+
+        ChatFilter filter = new ChatFilter(null);
+        long start = System.nanoTime();
+        filter.replacePatterns(patterns);
+        System.out.printf("금칙어 %d개 컴파일: %d ms%n", patternCount, (System.nanoTime() - start) / 1_000_000);
+
+        verify();
+        run(filter, samples, messages / 10, 1); // 워밍업
+        double single = run(filter, samples, messages, 1);
+        int cores = Runtime.getRuntime().availableProcessors();
+        double all = run(filter, samples, messages, cores);
+        System.out.printf("스레드 1개: %.0f 메시지/초%n", single);
+        System.out.printf("스레드 %d개: %.0f 메시지/초 (코어당 %.0f)%n", cores, all, all / cores);
+        System.out.println(filter.metrics());
+    }
+
+    private static double run(ChatFilter filter, String[] samples, int perThread, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 31;
+            results.add(pool.submit(() -> {
+                int changed = 0;
+                for (int i = 0; i < perThread; i++) {
+                    String s = samples[(i + offset) & (samples.length - 1)];
+                    if (filter.filter(s) != s) changed++;
+                }
+                return changed;
+            }));
+        }
+        for (Future<Integer> f : results) f.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        return (double) perThread * threads / seconds;
+    }
+
+    private static void verify() {
+        ChatFilter f = new ChatFilter(null);
+        f.replacePatterns(List.of("he", "she", "hers", "나쁜말"));
+        check(f.filter("ushers"), "u*****");
+        check(f.filter("SHE said"), "*** said");
+        check(f.filter("정말 나쁜말 이네"), "정말 *** 이네");
+        check(f.filter("clean"), "clean");
+    }
+
+    private static void check(String actual, String expected) {
+        if (!actual.equals(expected)) {
+            throw new IllegalStateException("필터 결과 불일치: " + actual + " (기대값 " + expected + ")");
+        }
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(random.nextBoolean() ? (char) ('가' + random.nextInt(2350)) : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
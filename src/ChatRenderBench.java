@@ -0,0 +1,70 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * 채팅 말풍선 생성 비용 측정. 예전 방식(HTML JLabel + 메시지마다 새 Font)과
+ * ChatTextView 를 같은 메시지로 비교하고, GamePanel.appendChatMessage 전체 비용도 잰다.
+ *
+ * 실행: java -Djava.awt.headless=true ChatRenderBench [메시지 수]
+ */
+public class ChatRenderBench {
+
+    private static final String[] SAMPLES = {
+            "누가 마피아일까요?",
+            "어젯밤에 수상한 사람 있었나요?",
+            "저는 시민입니다. 어제 P3 님이 계속 말을 돌리던데 한 번 들어봐야 할 것 같아요.",
+            "일단 투표합시다.",
+            "<b>태그</b>도 글자 그대로 보여야 합니다",
+            "ㅋㅋㅋㅋ",
+    };
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        SwingUtilities.invokeAndWait(() -> run(count));
+    }
+
+    private static void run(int count) {
+        // 워밍업 (클래스 로딩, 글꼴 초기화)
+        html(200, 0);
+        plain(200, 0);
+
+        long htmlNanos = html(count, 1);
+        long plainNanos = plain(count, 1);
+        System.out.printf("HTML JLabel   : %6.1f us/메시지%n", htmlNanos / 1000.0 / count);
+        System.out.printf("ChatTextView  : %6.1f us/메시지%n", plainNanos / 1000.0 / count);
+
+        GamePanel panel = new GamePanel(null);
+        panel.setSize(400, 600);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            panel.appendChatMessage("P" + (i % 8), message(i, 1), i % 5 == 0);
+        }
+        System.out.printf("appendChatMessage: %6.1f us/메시지 (%s)%n",
+                (System.nanoTime() - start) / 1000.0 / count, GamePanel.renderStats());
+    }
+
+    // 반복 메시지 대부분 + 가끔 새 문장 (실제 채팅과 비슷하게)
+    private static String message(int i, int salt) {
+        String base = SAMPLES[i % SAMPLES.length];
+        return (i % 10 == 0) ? base + " #" + (i * salt) : base;
+    }
+
+    private static long html(int count, int salt) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            JLabel label = new JLabel("<html>" + message(i, salt) + "</html>");
+            label.setFont(new Font("맑은 고딕", Font.PLAIN, 10));
+            label.getPreferredSize();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long plain(int count, int salt) {
+        Font font = new Font("맑은 고딕", Font.PLAIN, 10);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            new ChatTextView(message(i, salt), font, Color.DARK_GRAY, 180, false).getPreferredSize();
+        }
+        return System.nanoTime() - start;
+    }
+}
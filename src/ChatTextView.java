@@ -0,0 +1,148 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채팅 말풍선 본문. HTML JLabel 대신 평문을 줄바꿈해 TextLayout 으로 직접 그린다.
+ * 줄바꿈 결과는 (글꼴, 폭, 본문) 별로 캐시하므로 같은 문장은 다시 재지 않는다.
+ * 본문은 마크업으로 해석하지 않으므로 플레이어가 보낸 태그도 글자 그대로 보인다.
+ */
+public class ChatTextView extends JComponent {
+
+    private static final int CACHE_SIZE = 512;
+    // 화면 그리기와 같은 조건(안티앨리어싱, 분수 폭)으로 잰다.
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+
+    private static final Map<String, Layout> layoutCache = new LinkedHashMap<String, Layout>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Layout> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private static long cacheHits = 0;
+    private static long cacheMisses = 0;
+
+    // 줄 목록과 전체 크기. TextLayout 은 불변이라 여러 말풍선이 공유해도 된다.
+    private static final class Layout {
+        final TextLayout[] lines;
+        final int width;
+        final int height;
+
+        Layout(TextLayout[] lines, int width, int height) {
+            this.lines = lines;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final Layout layout;
+    private final boolean centered;
+
+    public ChatTextView(String text, Font font, Color color, int wrapWidth, boolean centered) {
+        this.layout = layoutFor(sanitize(text), font, Math.max(20, wrapWidth));
+        this.centered = centered;
+        setFont(font);
+        setForeground(color);
+        setOpaque(false);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        Insets in = getInsets();
+        return new Dimension(layout.width + in.left + in.right, layout.height + in.top + in.bottom);
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g2.setColor(getForeground());
+
+        Insets in = getInsets();
+        float y = in.top;
+        for (TextLayout line : layout.lines) {
+            y += line.getAscent();
+            float x = in.left;
+            if (centered) {
+                x += (layout.width - line.getAdvance()) / 2f;
+            }
+            line.draw(g2, x, y);
+            y += line.getDescent() + line.getLeading();
+        }
+        g2.dispose();
+    }
+
+    public static synchronized String cacheStats() {
+        return "줄바꿈 캐시 " + layoutCache.size() + "개, 적중 " + cacheHits + "회, 새로 계산 " + cacheMisses + "회";
+    }
+
+    // 줄바꿈 외의 제어 문자는 공백으로 바꾼다.
+    static String sanitize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\n' && Character.isISOControl(c)) {
+                if (sb == null) sb = new StringBuilder(text);
+                sb.setCharAt(i, ' ');
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    private static synchronized Layout layoutFor(String text, Font font, int wrapWidth) {
+        String key = font.getFontName() + '\u0000' + font.getStyle() + '\u0000' + font.getSize() + '\u0000' + wrapWidth + '\u0000' + text;
+        Layout cached = layoutCache.get(key);
+        if (cached != null) {
+            cacheHits++;
+            return cached;
+        }
+        cacheMisses++;
+        Layout computed = compute(text, font, wrapWidth);
+        layoutCache.put(key, computed);
+        return computed;
+    }
+
+    private static Layout compute(String text, Font font, int wrapWidth) {
+        List<TextLayout> lines = new ArrayList<>();
+        float width = 0;
+        float height = 0;
+
+        // 명시적 줄바꿈은 문단으로 나누고, 각 문단은 폭에 맞춰 단어 단위로 자른다.
+        for (String paragraph : text.split("\n", -1)) {
+            TextLayout line;
+            if (paragraph.isEmpty()) {
+                line = new TextLayout(" ", font, FRC);
+                lines.add(line);
+                height += line.getAscent() + line.getDescent() + line.getLeading();
+                continue;
+            }
+            AttributedString attributed = new AttributedString(paragraph);
+            attributed.addAttribute(TextAttribute.FONT, font);
+            LineBreakMeasurer measurer = new LineBreakMeasurer(attributed.getIterator(), FRC);
+            while (measurer.getPosition() < paragraph.length()) {
+                line = measurer.nextLayout(wrapWidth);
+                lines.add(line);
+                width = Math.max(width, line.getAdvance());
+                height += line.getAscent() + line.getDescent() + line.getLeading();
+            }
+        }
+        return new Layout(lines.toArray(new TextLayout[0]), (int) Math.ceil(width), (int) Math.ceil(height));
+    }
+}
@@ -2,10 +2,15 @@ import javax.swing.*;
 import java.awt.*;
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.SwingUtilities;
 
 public class Client {
@@ -22,6 +27,13 @@ public class Client {
     private WaitingGamePanel waitingGamePanel;
     private GamePanel gamePanel;
 
+    // [신규] 서버 수신 루프를 돌리는 스레드 (연결마다 raw Thread 를 만들지 않음)
+    private final ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "server-listener");
+        t.setDaemon(true);
+        return t;
+    });
+
     private volatile boolean inGame = false;
     private volatile boolean isAlive = true;
     private String myRole = "";
@@ -35,26 +47,72 @@ public class Client {
 
     private volatile String markedPlayer = "";
 
+    // [신규] 서버가 접속을 거절하며 보낸 이유 (SYSTEM:REJECTED:). 연결이 끊길 때 안내에 쓴다.
+    private volatile String rejectReason = null;
+
+    // [신규] 서버가 입장 때 준 좌석 토큰 (SEAT_TOKEN:). 서버 재시작 후 다시 접속하면 RECLAIM: 으로 보내 좌석을 이어받는다.
+    private volatile String seatToken = null;
+
     // [제거] private volatile String mafiaSelectedPlayer = "";
 
     private Map<String, String> investigatedRoles = new HashMap<>();
 
+    // [신규] main 진입 시각 (첫 화면 표시 시간 측정용)
+    private static long launchedAt = System.nanoTime();
 
     public Client() {
         frame = new JFrame("마피아 게임 클라이언트");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(600, 700);
 
+        // [수정] 접속 화면만 먼저 만들고, 대기실/게임 화면은 처음 쓸 때 만든다.
         connectionPanel = new ServerConnectionPanel(this);
-        waitingGamePanel = new WaitingGamePanel(this);
-        gamePanel = new GamePanel(this);
+        connectionPanel.onFirstPaint(this::reportFirstFrame);
 
         frame.getContentPane().add(connectionPanel);
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
     }
 
-    public void connectToServer(String nickname, String host, int port) throws IOException {
+    /**
+     * [신규] 창을 띄우지 않는 클라이언트. 헤드리스 렌더링 벤치(GamePanelBench)가 GamePanel 에 넘길 게임 상태만 갖는다.
+     */
+    Client(String myRole, int myPlayerNumber) {
+        this.myRole = myRole;
+        this.myPlayerNumber = myPlayerNumber;
+    }
+
+    private void reportFirstFrame() {
+        long fromMain = (System.nanoTime() - launchedAt) / 1_000_000;
+        long fromJvm = System.currentTimeMillis() - java.lang.management.ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("첫 화면 표시: main 이후 " + fromMain + "ms, JVM 시작 이후 " + fromJvm + "ms");
+
+        // 첫 화면이 뜬 뒤 게임 화면 이미지를 백그라운드에서 데운다.
+        GamePanel.preloadAssets();
+    }
+
+    // 아래 두 화면은 EDT 에서만 만들고 쓴다.
+    private WaitingGamePanel waitingPanel() {
+        if (waitingGamePanel == null) {
+            waitingGamePanel = new WaitingGamePanel(this);
+        }
+        return waitingGamePanel;
+    }
+
+    private GamePanel gamePanel() {
+        if (gamePanel == null) {
+            long start = System.nanoTime();
+            gamePanel = new GamePanel(this);
+            System.out.println("게임 화면 생성 " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        }
+        return gamePanel;
+    }
+
+    /**
+     * [수정] 비동기 접속. EDT 를 막지 않고 바로 반환하며, 결과는 접속 화면에 알려 준다.
+     * 반환된 Attempt 로 진행 중인 접속을 취소할 수 있다. compress 면 서버 송신을 DEFLATE 로 받기를 요청한다.
+     */
+    public Connector.Attempt connectToServer(String nickname, String host, int port, boolean compress) {
         this.host = host;
         this.port = port;
         this.myNickname = nickname;
@@ -62,24 +120,149 @@ public class Client {
         this.isHost = false;
         this.isReady = false;
         this.investigatedRoles.clear();
+        this.rejectReason = null;
 
-        try {
-            socket = new Socket(host, port);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
-            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true);
+        Connector.Attempt attempt = Connector.connect(host, port);
+        attempt.result().whenComplete((result, error) -> {
+            if (error == null) {
+                try {
+                    onConnected(result, compress);
+                    return;
+                } catch (IOException e) {
+                    try { result.socket.close(); } catch (Exception ignored) {}
+                    error = e;
+                }
+            }
+            String reason = describeConnectError(error);
+            System.out.println("연결 실패: " + reason + " / 누적: " + Connector.metrics());
+            SwingUtilities.invokeLater(() -> connectionPanel.connectFailed(reason));
+        });
+        return attempt;
+    }
+
+    // 접속 스레드에서 호출된다. 화면 전환만 EDT 로 넘긴다.
+    private void onConnected(Connector.Result result, boolean compress) throws IOException {
+        socket = result.socket;
+        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true);
+
+        out.println("NICKNAME:" + myNickname);
+        InputStream input = socket.getInputStream();
+        if (compress) {
+            out.println("COMPRESS:DEFLATE");
+            input = negotiateCompression(input);
+        }
+        if (seatToken != null) {
+            out.println("RECLAIM:" + seatToken);
+        }
+        in = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+        System.out.println("서버 연결: " + result + " / 누적: " + Connector.metrics());
+
+        listenerExecutor.execute(this::listenForMessages);
+
+        SwingUtilities.invokeLater(() -> {
+            connectionPanel.connectSucceeded();
+            showWaitingPanel();
+            // 대기실에 있는 동안 게임 화면을 미리 만들어 START_GAME 때 기다리지 않게 한다.
+            SwingUtilities.invokeLater(this::gamePanel);
+        });
+    }
+
+    /**
+     * [신규] COMPRESS_OK / COMPRESS_NO 가 올 때까지는 평문 줄을 그대로 넘기고, COMPRESS_OK 를 만나면 그 뒤 바이트부터
+     * 한 연결짜리 DEFLATE 스트림으로 푼다. 응답을 기다리며 멈추지 않으므로, 서버가 늦게 답해도(접속 대기열 등)
+     * 서버가 압축으로 바꾸는 바로 그 지점에서 함께 바꾼다.
+     */
+    private InputStream negotiateCompression(InputStream raw) {
+        return new NegotiatingInputStream(raw);
+    }
+
+    private static final class NegotiatingInputStream extends InputStream {
+        private final InputStream raw;
+        // 협상이 끝나면 이후 바이트를 읽을 스트림 (압축이면 InflaterInputStream, 아니면 raw)
+        private InputStream rest;
+        // 협상 중 읽은, 아직 넘기지 않은 평문 한 줄 ('\n' 포함)
+        private byte[] line = new byte[0];
+        private int position;
 
-            out.println("NICKNAME:" + nickname);
+        NegotiatingInputStream(InputStream raw) {
+            this.raw = raw;
+        }
 
-            new Thread(this::listenForMessages).start();
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
 
-            SwingUtilities.invokeLater(this::showWaitingPanel);
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (position == line.length) {
+                if (rest != null) {
+                    return rest.read(b, off, len);
+                }
+                if (!readPlainLine()) {
+                    return -1;
+                }
+            }
+            int n = Math.min(len, line.length - position);
+            System.arraycopy(line, position, b, off, n);
+            position += n;
+            return n;
+        }
 
-        } catch (IOException e) {
-            try { if (socket != null) socket.close(); } catch (Exception ignored){}
-            throw e;
+        // InflaterInputStream.available() 은 끝까지 1 을 돌려줘서 InputStreamReader 가
+        // 줄이 도착해도 더 읽으려고 기다린다. 0 으로 막아 도착한 만큼 바로 넘기게 한다.
+        @Override
+        public int available() {
+            return line.length - position;
+        }
+
+        // 평문 한 줄을 읽어 협상 응답이면 스트림을 바꾸고, 아니면 넘길 줄로 둔다. 끝이면 false.
+        private boolean readPlainLine() throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int c;
+            while ((c = raw.read()) != -1 && c != '\n') {
+                buffer.write(c);
+            }
+            if (c == -1 && buffer.size() == 0) {
+                return false;
+            }
+            String text = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+            if (text.startsWith("COMPRESS_OK:")) {
+                System.out.println("서버 송신 압축 사용 (" + text.substring("COMPRESS_OK:".length()) + ")");
+                rest = new InflaterInputStream(raw, new Inflater(true), 4096);
+            } else if (text.startsWith("COMPRESS_NO:")) {
+                System.out.println("서버가 압축을 지원하지 않아 압축 없이 진행합니다.");
+                rest = raw;
+            } else {
+                if (c == '\n') {
+                    buffer.write('\n');
+                }
+                line = buffer.toByteArray();
+                position = 0;
+            }
+            return true;
         }
     }
 
+    private static String describeConnectError(Throwable error) {
+        Throwable cause = (error instanceof java.util.concurrent.CompletionException && error.getCause() != null)
+                ? error.getCause() : error;
+        if (cause instanceof java.util.concurrent.TimeoutException) {
+            return "연결 시간 초과 (" + Connector.DEFAULT_TIMEOUT_MILLIS / 1000 + "초)";
+        }
+        if (cause instanceof java.util.concurrent.CancellationException) {
+            return "연결이 취소되었습니다.";
+        }
+        if (cause instanceof java.net.UnknownHostException) {
+            return "알 수 없는 호스트: " + cause.getMessage();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
     /**
      * 서버 메시지 수신 루프
      */
@@ -88,9 +271,22 @@ public class Client {
             String line;
             while ((line = in.readLine()) != null) {
                 final String msg = line;
+                // [신규] 서버 하트비트는 EDT 를 거치지 않고 바로 응답한다.
+                if (msg.startsWith("PING:")) {
+                    out.println("PONG:" + msg.substring("PING:".length()));
+                    continue;
+                }
+                if (msg.startsWith("SYSTEM:REJECTED:")) {
+                    rejectReason = msg.substring("SYSTEM:REJECTED:".length());
+                    continue;
+                }
+                if (msg.startsWith("SEAT_TOKEN:")) {
+                    seatToken = msg.substring("SEAT_TOKEN:".length());
+                    continue;
+                }
                 System.out.println("[SERVER] " + msg);
 
-                SwingUtilities.invokeLater(() -> {
+                SwingUtilities.invokeLater(GameEvents.ClientMessage.wrap(msg, () -> {
 
                     // 0. PLAYER_NUM: (접속 시 자신의 번호 수신)
                     if (msg.startsWith("PLAYER_NUM:")) {
@@ -106,7 +302,7 @@ public class Client {
                         if (parts.length == 2) {
                             String phase = parts[0];
                             int secondsLeft = Integer.parseInt(parts[1]);
-                            gamePanel.updateTimer(phase, secondsLeft);
+                            gamePanel().updateTimer(phase, secondsLeft);
                         }
                         return;
                     }
@@ -116,10 +312,10 @@ public class Client {
                         String list = msg.substring(13);
                         List<String> players = Arrays.asList(list.split(","));
                         if (!inGame) {
-                            waitingGamePanel.updatePlayerList(players);
+                            waitingPanel().updatePlayerList(players);
                         } else {
-                            gamePanel.updatePlayerList(players);
-                            gamePanel.updatePlayerMarks();
+                            gamePanel().updatePlayerList(players);
+                            gamePanel().updatePlayerMarks();
                         }
                         return;
                     }
@@ -127,10 +323,13 @@ public class Client {
                     // 3. START_GAME:
                     else if (msg.startsWith("START_GAME")) {
                         inGame = true;
+                        if (!GameAssets.isWarm()) {
+                            System.out.println("경고: 게임 에셋 미리 로드가 끝나기 전에 게임이 시작되었습니다.");
+                        }
                         markedPlayer = "";
                         investigatedRoles.clear();
                         showGamePanel();
-                        gamePanel.appendChatMessage("시스템", "게임이 시작되었습니다.", false);
+                        gamePanel().appendChatMessage("시스템", "게임이 시작되었습니다.", false);
                         return;
                     }
 
@@ -142,14 +341,14 @@ public class Client {
                     // 5. YOU_DIED:
                     else if (msg.equals("YOU_DIED")) {
                         isAlive = false;
-                        gamePanel.appendChatMessage("시스템", "⚠ 당신은 사망했습니다. 관전자 모드로 전환됩니다.", false);
+                        gamePanel().appendChatMessage("시스템", "⚠ 당신은 사망했습니다. 관전자 모드로 전환됩니다.", false);
                         return;
                     }
 
                     // 6. GAME_OVER:
                     else if (msg.startsWith("GAME_OVER")) {
                         String content = msg.substring("GAME_OVER".length()).trim();
-                        gamePanel.appendChatMessage("시스템", "[게임 종료] " + content, false);
+                        gamePanel().appendChatMessage("시스템", "[게임 종료] " + content, false);
                         JOptionPane.showMessageDialog(frame, "게임이 종료되었습니다: " + content);
 
                         resetToLobby();
@@ -163,12 +362,12 @@ public class Client {
                         if (systemMsg.equals("HOST_GRANTED")) {
                             isHost = true;
                             isReady = true;
-                            waitingGamePanel.updateButtons(true, true);
+                            waitingPanel().updateButtons(true, true);
                         }
                         else if (systemMsg.equals("GUEST_GRANTED")) {
                             isHost = false;
                             isReady = false;
-                            waitingGamePanel.updateButtons(false, false);
+                            waitingPanel().updateButtons(false, false);
                         }
 
                         // 역할 배정 메시지 처리
@@ -177,15 +376,15 @@ public class Client {
                             int end = systemMsg.lastIndexOf("'");
                             if (start > 0 && end > start) {
                                 myRole = systemMsg.substring(start, end).toUpperCase();
-                                gamePanel.updateMyRoleDisplay(myRole);
+                                gamePanel().updateMyRoleDisplay(myRole);
                             }
                         }
 
                         if (!inGame) {
-                            waitingGamePanel.appendChatMessage(systemMsg);
+                            waitingPanel().appendChatMessage(systemMsg);
                         } else {
-                            gamePanel.appendChatMessage("시스템", systemMsg, false);
-                            gamePanel.updatePlayerMarks();
+                            gamePanel().appendChatMessage("시스템", systemMsg, false);
+                            gamePanel().updatePlayerMarks();
                         }
                         return;
                     }
@@ -215,9 +414,9 @@ public class Client {
                             boolean isMyMessage = sender.equals(myNickname);
 
                             if (!inGame) {
-                                waitingGamePanel.appendChatMessage(message);
+                                waitingPanel().appendChatMessage(message);
                             } else {
-                                gamePanel.appendChatMessage(sender, message, isMyMessage, chatType);
+                                gamePanel().appendChatMessage(sender, message, isMyMessage, chatType);
                             }
                         } else {
                             handleGeneralMessage(msg);
@@ -228,7 +427,7 @@ public class Client {
                     // 밤 능력 대상 마크 (MAFIA, DOCTOR 대상 지목 시)
                     else if (msg.startsWith("MARK_TARGET:")) {
                         markedPlayer = msg.substring("MARK_TARGET:".length()).trim();
-                        gamePanel.updatePlayerMarks();
+                        gamePanel().updatePlayerMarks();
                         return;
                     }
 
@@ -240,7 +439,7 @@ public class Client {
 
                             if (parts.length == 2) {
                                 investigatedRoles.put(parts[0], parts[1]);
-                                gamePanel.updatePlayerMarks();
+                                gamePanel().updatePlayerMarks();
                             }
                         }
                         return;
@@ -254,14 +453,15 @@ public class Client {
                         handleGeneralMessage(msg);
                         return;
                     }
-                });
+                }));
             }
         } catch (Exception e) {
             System.out.println("서버 수신 루프 종료: " + e.getMessage());
         } finally {
             try { if (socket != null) socket.close(); } catch (Exception ignored) {}
+            String reason = rejectReason;
             SwingUtilities.invokeLater(() -> {
-                JOptionPane.showMessageDialog(frame, "서버 연결이 끊겼습니다.");
+                JOptionPane.showMessageDialog(frame, reason != null ? "서버가 접속을 거절했습니다: " + reason : "서버 연결이 끊겼습니다.");
 
                 resetToLobby();
             });
@@ -270,9 +470,9 @@ public class Client {
 
     private void handleGeneralMessage(String msg) {
         if (!inGame) {
-            waitingGamePanel.appendChatMessage(msg);
+            waitingPanel().appendChatMessage(msg);
         } else {
-            gamePanel.appendChatMessage("시스템", msg, false);
+            gamePanel().appendChatMessage("시스템", msg, false);
         }
     }
 
@@ -281,7 +481,7 @@ public class Client {
         if (!isHost) {
             sendMessage("/ready");
             isReady = !isReady;
-            waitingGamePanel.updateButtons(isHost, isReady);
+            waitingPanel().updateButtons(isHost, isReady);
         } else {
             System.out.println("방장은 준비 상태를 변경할 수 없습니다.");
         }
@@ -310,11 +510,11 @@ public class Client {
             if (!isAlive) {
                 chatPrefix = "CHAT_DEAD:";
             }
-            else if (inGame && gamePanel.getCurrentPhase().equals("NIGHT")) {
+            else if (inGame && gamePanel().getCurrentPhase().equals("NIGHT")) {
                 if ("MAFIA".equals(myRole)) {
                     chatPrefix = "CHAT_MAFIA:";
                 } else {
-                    gamePanel.appendChatMessage("시스템", "경고: 밤에는 마피아만 대화 가능합니다.", false);
+                    gamePanel().appendChatMessage("시스템", "경고: 밤에는 마피아만 대화 가능합니다.", false);
                     return;
                 }
             }
@@ -337,9 +537,9 @@ public class Client {
             }
 
             if (!inGame) {
-                waitingGamePanel.appendChatMessage(msg);
+                waitingPanel().appendChatMessage(msg);
             } else {
-                gamePanel.appendChatMessage(myNickname, msg, true, localType);
+                gamePanel().appendChatMessage(myNickname, msg, true, localType);
             }
         }
     }
@@ -349,14 +549,14 @@ public class Client {
     // ---------------- GUI 전환 유틸 ----------------
     public void showWaitingPanel() {
         frame.getContentPane().removeAll();
-        frame.getContentPane().add(waitingGamePanel);
+        frame.getContentPane().add(waitingPanel());
         frame.revalidate();
         frame.repaint();
     }
 
     public void showGamePanel() {
         frame.getContentPane().removeAll();
-        frame.getContentPane().add(gamePanel);
+        frame.getContentPane().add(gamePanel());
         frame.revalidate();
         frame.repaint();
     }
@@ -375,12 +575,12 @@ public class Client {
         this.isReady = wasHost;
 
         SwingUtilities.invokeLater(() -> {
-            gamePanel.clearGameState();
-            gamePanel.updateMyRoleDisplay("UNKNOWN");
+            gamePanel().clearGameState();
+            gamePanel().updateMyRoleDisplay("UNKNOWN");
 
             showWaitingPanel();
-            waitingGamePanel.clearDisplay();
-            waitingGamePanel.updateButtons(wasHost, this.isReady);
+            waitingPanel().clearDisplay();
+            waitingPanel().updateButtons(wasHost, this.isReady);
         });
     }
 
@@ -426,6 +626,7 @@ public class Client {
 
 
     public static void main(String[] args) {
+        launchedAt = System.nanoTime();
         SwingUtilities.invokeLater(Client::new);
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 게이트웨이 처리량 측정 도구. 여러 방에 클라이언트를 나눠 접속시키고 채팅을 보내
+ * 초당 전달된 메시지 수와 전달 지연을 출력한다. 노드 1개와 N개일 때를 각각 실행해 비교한다.
+ *
+ * 노드는 클라이언트 전원을 받을 수 있게 --max-connections 를 (방 수 x 방당 인원) 이상으로 띄운다.
+ * 입장하지 못한 클라이언트가 있으면 결과는 처리량이 아니라 대기/거절을 잰 것이므로 경고를 출력한다.
+ * 노드 하나는 로비 하나이고 방 전체 채팅 제한(초당 20건)이 노드마다 걸리므로, "고유 메시지" 는 노드 수만큼의 방 예산을,
+ * "전달" 은 그 메시지가 같은 로비의 다른 인원에게 복사된 수(팬아웃)를 보여 준다.
+ *
+ * 실행: java ClusterBench <gateway host> <port> <방 수> <방당 인원> <측정 초>
+ */
+public class ClusterBench {
+
+    // 서버의 연결별 채팅 제한(초당 3회)보다 조금 낮게 보낸다.
+    private static final long SEND_INTERVAL_MILLIS = 400;
+
+    public static void main(String[] args) throws Exception {
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int rooms = Integer.parseInt(args[2]);
+        int perRoom = Integer.parseInt(args[3]);
+        int seconds = Integer.parseInt(args[4]);
+
+        AtomicLong received = new AtomicLong();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong joined = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong throttled = new AtomicLong();
+        Set<String> unique = ConcurrentHashMap.newKeySet();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Socket> sockets = new ArrayList<>();
+        List<PrintWriter> writers = new ArrayList<>();
+        List<String> nicknames = new ArrayList<>();
+
+        for (int r = 0; r < rooms; r++) {
+            for (int i = 0; i < perRoom; i++) {
+                Socket s = new Socket(host, port);
+                s.setTcpNoDelay(true);
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), true);
+                out.println("ROOM:bench-" + r);
+                out.println("NICKNAME:b" + r + "_" + i);
+                nicknames.add("b" + r + "_" + i);
+                sockets.add(s);
+                writers.add(out);
+
+                BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                Thread reader = new Thread(() -> {
+                    try {
+                        String line;
+                        while ((line = in.readLine()) != null) {
+                            int at = line.lastIndexOf('@');
+                            if (line.startsWith("CHAT:") && at > 0) {
+                                received.incrementAndGet();
+                                unique.add(line.substring(0, at));
+                                latencies.add(System.nanoTime() - Long.parseLong(line.substring(at + 1)));
+                            } else if (line.equals("SYSTEM:HOST_GRANTED") || line.equals("SYSTEM:GUEST_GRANTED")) {
+                                joined.incrementAndGet();
+                            } else if (line.startsWith("SYSTEM:REJECTED:")) {
+                                rejected.incrementAndGet();
+                            } else if (line.startsWith("SYSTEM:메시지를 너무 빠르게")) {
+                                throttled.incrementAndGet();
+                            }
+                        }
+                    } catch (IOException | NumberFormatException ignored) {
+                    }
+                });
+                reader.setDaemon(true);
+                reader.start();
+            }
+        }
+
+        Thread.sleep(1000);
+        System.out.println("접속 " + sockets.size() + "명 중 입장 " + joined.get() + "명, 거절 " + rejected.get() + "명, " + rooms + "개 방");
+        if (joined.get() < sockets.size()) {
+            System.out.println("경고: 입장하지 못한 클라이언트가 있습니다. 노드의 --max-connections 를 늘려 다시 재세요.");
+        }
+        long seq = 0;
+        long end = System.currentTimeMillis() + seconds * 1000L;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < writers.size(); i++) {
+                writers.get(i).println("CHAT:" + nicknames.get(i) + ":bench" + seq++ + "@" + System.nanoTime());
+                sent.incrementAndGet();
+            }
+            Thread.sleep(SEND_INTERVAL_MILLIS);
+        }
+        Thread.sleep(500);
+
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+        System.out.println("송신 " + sent.get() + "건, 전달된 고유 메시지 " + unique.size() + "건 (초당 " + unique.size() / seconds
+                + "건), 전달 " + received.get() + "건 (초당 " + received.get() / seconds + "건), 속도 제한 안내 " + throttled.get() + "회");
+        if (!sorted.isEmpty()) {
+            System.out.printf("지연 p50 %.2fms, p99 %.2fms%n",
+                    sorted.get(sorted.size() / 2) / 1e6, sorted.get((int) (sorted.size() * 0.99)) / 1e6);
+        }
+        for (Socket s : sockets) s.close();
+    }
+}
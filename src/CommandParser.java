@@ -0,0 +1,146 @@
+/**
+ * 클라이언트가 보낸 한 줄을 한 번만 훑어 명령 종류(Op)와 인자 위치를 알아낸다.
+ * trim/substring/parseInt 를 쓰지 않고 결과를 호출자가 재사용하는 Command 에 채우므로,
+ * 게임 명령(/vote, /skill, /ready ...)은 해석하는 동안 객체를 하나도 만들지 않는다.
+ * 채팅 본문이나 닉네임처럼 문자열이 필요한 인자만 Command.argument() 에서 잘라 쓴다.
+ */
+final class CommandParser {
+
+    /**
+     * 명령 종류. allowedWhenDead 는 죽은 플레이어도 보낼 수 있는 명령, example 은 잘못 썼을 때 보여 줄 예시다.
+     */
+    enum Op {
+        EMPTY(true, null),
+        UNKNOWN(false, null),
+        TIMER(true, null),
+        PONG(true, null),
+        NICKNAME(true, null),
+        COMPRESS(true, null),
+        RECLAIM(true, null),
+        START(false, null),
+        READY(true, null),
+        QUEUE(false, null),
+        VOTE(false, "/vote 2"),
+        SKILL(false, "/skill 2"),
+        KILL(false, "/kill 2"),
+        SAVE(false, "/save 2"),
+        INVESTIGATE(false, "/investigate 2"),
+        CHAT(false, null),
+        CHAT_MAFIA(false, null),
+        CHAT_DEAD(true, null);
+
+        final boolean allowedWhenDead;
+        final String example;
+
+        Op(boolean allowedWhenDead, String example) {
+            this.allowedWhenDead = allowedWhenDead;
+            this.example = example;
+        }
+
+        boolean isChat() {
+            return this == CHAT || this == CHAT_MAFIA || this == CHAT_DEAD;
+        }
+    }
+
+    /**
+     * 해석 결과. 연결마다 하나를 만들어 두고 줄마다 덮어쓴다.
+     */
+    static final class Command {
+        Op op = Op.EMPTY;
+        String line;
+        // 인자 범위 [argStart, argEnd). 슬래시 명령과 NICKNAME/COMPRESS/RECLAIM 은 앞뒤 공백을 뺀 범위다.
+        int argStart;
+        int argEnd;
+        // 인자가 "숫자 하나" 였을 때만 hasNumber 가 참이다.
+        boolean hasNumber;
+        int number;
+
+        String argument() {
+            return line.substring(argStart, argEnd);
+        }
+    }
+
+    // 대소문자 구분 없이 맞추는 슬래시 명령
+    private static final String[] SLASH_NAMES = {"/start", "/ready", "/queue", "/vote", "/skill", "/kill", "/save", "/investigate"};
+    private static final Op[] SLASH_OPS = {Op.START, Op.READY, Op.QUEUE, Op.VOTE, Op.SKILL, Op.KILL, Op.SAVE, Op.INVESTIGATE};
+
+    // "이름:" 으로 시작하는 프로토콜 메시지 (대소문자 구분)
+    private static final String[] PREFIX_NAMES = {"CHAT", "CHAT_MAFIA", "CHAT_DEAD", "NICKNAME", "COMPRESS", "RECLAIM", "TIMER", "PONG"};
+    private static final Op[] PREFIX_OPS = {Op.CHAT, Op.CHAT_MAFIA, Op.CHAT_DEAD, Op.NICKNAME, Op.COMPRESS, Op.RECLAIM, Op.TIMER, Op.PONG};
+
+    // 플레이어 번호로 받아들이는 최대 자릿수 (int 넘침 방지)
+    private static final int MAX_DIGITS = 9;
+
+    private CommandParser() {
+    }
+
+    static void parse(String line, Command out) {
+        out.line = line;
+        out.hasNumber = false;
+        out.number = 0;
+
+        int start = 0;
+        int end = line.length();
+        while (start < end && line.charAt(start) <= ' ') start++;
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+        out.argStart = start;
+        out.argEnd = end;
+        if (start == end) {
+            out.op = Op.EMPTY;
+            return;
+        }
+
+        if (line.charAt(start) == '/') {
+            int nameEnd = start;
+            while (nameEnd < end && line.charAt(nameEnd) > ' ') nameEnd++;
+            out.op = lookup(line, start, nameEnd - start, SLASH_NAMES, SLASH_OPS, true);
+            setArgument(line, nameEnd, end, out);
+            return;
+        }
+
+        int colon = line.indexOf(':', start);
+        if (colon < 0 || colon >= end) {
+            out.op = Op.UNKNOWN;
+            return;
+        }
+        out.op = lookup(line, start, colon - start, PREFIX_NAMES, PREFIX_OPS, false);
+        if (out.op == Op.NICKNAME || out.op == Op.COMPRESS || out.op == Op.RECLAIM) {
+            setArgument(line, colon + 1, end, out);
+        } else {
+            // 채팅 본문은 앞 공백도 내용이다.
+            out.argStart = colon + 1;
+            out.argEnd = end;
+        }
+    }
+
+    private static Op lookup(String line, int offset, int length, String[] names, Op[] ops, boolean ignoreCase) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].length() == length && line.regionMatches(ignoreCase, offset, names[i], 0, length)) {
+                return ops[i];
+            }
+        }
+        return Op.UNKNOWN;
+    }
+
+    // 앞 공백을 건너뛴 인자 범위를 잡고, 숫자 하나뿐이면 바로 값으로 바꾼다.
+    private static void setArgument(String line, int from, int end, Command out) {
+        while (from < end && line.charAt(from) <= ' ') from++;
+        out.argStart = from;
+        out.argEnd = end;
+
+        int digits = end - from;
+        if (digits == 0 || digits > MAX_DIGITS) {
+            return;
+        }
+        int value = 0;
+        for (int i = from; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return;
+            }
+            value = value * 10 + (c - '0');
+        }
+        out.number = value;
+        out.hasNumber = true;
+    }
+}
@@ -0,0 +1,118 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * 명령 해석 비용 측정. 게임 명령 줄을 CommandParser 로 해석할 때와 예전 방식
+ * (trim 반복 + startsWith 사슬 + substring + parseInt) 으로 해석할 때의 시간과 스레드 할당 바이트를 비교한다.
+ * JMH 가 없는 빌드라 com.sun.management.ThreadMXBean 의 스레드별 할당량으로 잰다.
+ *
+ * 실행: java CommandParserBench [반복 수]
+ */
+public class CommandParserBench {
+
+    private static final String[] COMMANDS = {
+            "/vote 3",
+            "/skill 5",
+            "  /ready  ",
+            "/start",
+            "/kill 2",
+            "/investigate 4",
+            "/vote x",
+            "TIMER:DAY:30",
+            "/queue",
+    };
+
+    private static volatile int sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        verify();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        CommandParser.Command command = new CommandParser.Command();
+        for (int round = 0; round < 3; round++) { // 앞 회차는 JIT 워밍업
+            long bytes = threads.getThreadAllocatedBytes(tid);
+            long start = System.nanoTime();
+            parseAll(command, iterations);
+            long parseNanos = System.nanoTime() - start;
+            long parseBytes = threads.getThreadAllocatedBytes(tid) - bytes;
+
+            bytes = threads.getThreadAllocatedBytes(tid);
+            start = System.nanoTime();
+            legacyAll(iterations);
+            long legacyNanos = System.nanoTime() - start;
+            long legacyBytes = threads.getThreadAllocatedBytes(tid) - bytes;
+
+            System.out.printf("[%d회차] CommandParser: %5.1f ns/명령, %6.2f 바이트/명령 | 예전 방식: %5.1f ns/명령, %6.2f 바이트/명령%n",
+                    round + 1, (double) parseNanos / iterations, (double) parseBytes / iterations,
+                    (double) legacyNanos / iterations, (double) legacyBytes / iterations);
+        }
+    }
+
+    private static void parseAll(CommandParser.Command command, int iterations) {
+        int acc = 0;
+        for (int i = 0; i < iterations; i++) {
+            CommandParser.parse(COMMANDS[i % COMMANDS.length], command);
+            acc += command.op.ordinal() + (command.hasNumber ? command.number : 0);
+        }
+        sink = acc;
+    }
+
+    // 바꾸기 전 handleLine 과 처리기들이 하던 일
+    private static void legacyAll(int iterations) {
+        int acc = 0;
+        for (int i = 0; i < iterations; i++) {
+            String message = COMMANDS[i % COMMANDS.length].trim();
+            if (message.startsWith("TIMER:")) {
+                acc += 1;
+            } else if (message.trim().equalsIgnoreCase("/start")) {
+                acc += 2;
+            } else if (message.trim().equalsIgnoreCase("/ready")) {
+                acc += 3;
+            } else if (message.trim().startsWith("/skill ") || message.trim().startsWith("/vote ")
+                    || message.trim().startsWith("/kill ") || message.trim().startsWith("/investigate ")) {
+                try {
+                    acc += Integer.parseInt(message.trim().substring(6).trim());
+                } catch (Exception e) {
+                    acc -= 1;
+                }
+            } else if (message.trim().equalsIgnoreCase("/queue")) {
+                acc += 4;
+            }
+        }
+        sink = acc;
+    }
+
+    private static void verify() {
+        CommandParser.Command c = new CommandParser.Command();
+        check(c, "  /VOTE   12 ", CommandParser.Op.VOTE, true, 12);
+        check(c, "/vote", CommandParser.Op.VOTE, false, 0);
+        check(c, "/vote 2 3", CommandParser.Op.VOTE, false, 0);
+        check(c, "/vote -1", CommandParser.Op.VOTE, false, 0);
+        check(c, "/vote 99999999999", CommandParser.Op.VOTE, false, 0);
+        check(c, "/investigate 4", CommandParser.Op.INVESTIGATE, true, 4);
+        check(c, "/skills 4", CommandParser.Op.UNKNOWN, true, 4);
+        check(c, "", CommandParser.Op.EMPTY, false, 0);
+        check(c, "hello", CommandParser.Op.UNKNOWN, false, 0);
+        check(c, "chat:x", CommandParser.Op.UNKNOWN, false, 0);
+        check(c, "CHAT: P1: 안녕 ", CommandParser.Op.CHAT, false, 0);
+        expect(c.argument().equals(" P1: 안녕"), "채팅 본문: [" + c.argument() + "]");
+        check(c, "NICKNAME:  철수 ", CommandParser.Op.NICKNAME, false, 0);
+        expect(c.argument().equals("철수"), "닉네임: [" + c.argument() + "]");
+        check(c, "RECLAIM: a-b_c ", CommandParser.Op.RECLAIM, false, 0);
+        expect(c.argument().equals("a-b_c"), "좌석 토큰: [" + c.argument() + "]");
+    }
+
+    private static void check(CommandParser.Command c, String line, CommandParser.Op op, boolean hasNumber, int number) {
+        CommandParser.parse(line, c);
+        expect(c.op == op && c.hasNumber == hasNumber && (!hasNumber || c.number == number),
+                "'" + line + "' -> " + c.op + " " + c.hasNumber + " " + c.number);
+    }
+
+    private static void expect(boolean ok, String detail) {
+        if (!ok) {
+            throw new IllegalStateException("해석 결과 불일치: " + detail);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 송신 압축 손익 측정. 실제 게임과 비슷한 송신 줄(SYSTEM 안내, PLAYERS_LIST, TIMER, 채팅)을
+ * 서버와 같은 방식(연결 하나에 DEFLATE 문맥 하나, 배치마다 SYNC_FLUSH)으로 압축해
+ * 레벨별로 절약한 바이트와 메시지당 CPU 시간을 비교한다. 풀어서 원문과 같은지도 확인한다.
+ *
+ * 실행: java CompressionBench [메시지 수] [배치 크기]
+ */
+public class CompressionBench {
+
+    private static final String[] CHAT = {
+            "누가 마피아일까요?",
+            "어젯밤에 수상한 사람 있었나요?",
+            "저는 시민입니다. 어제 P3 님이 계속 말을 돌리던데 한 번 들어봐야 할 것 같아요.",
+            "일단 투표합시다.",
+            "ㅋㅋㅋㅋ",
+            "경찰 있으면 조사 결과 말해 주세요",
+    };
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int batch = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        List<byte[]> lines = traffic(count, new Random(11));
+        long rawBytes = 0;
+        for (byte[] line : lines) rawBytes += line.length;
+        System.out.printf("메시지 %d건, 평균 %.1f바이트, 배치 %d건%n", count, (double) rawBytes / count, batch);
+
+        for (int level : new int[]{1, 6, 9}) {
+            run(lines, batch, level); // 워밍업
+            run(lines, batch, level);
+        }
+    }
+
+    private static void run(List<byte[]> lines, int batch, int level) {
+        Deflater deflater = new Deflater(level, true);
+        Inflater inflater = new Inflater(true);
+        ByteBuffer out = ByteBuffer.allocateDirect(8 * 1024);
+        byte[] inflated = new byte[64 * 1024];
+        long raw = 0;
+        long wire = 0;
+        long nanos = 0;
+
+        try {
+            for (int i = 0; i < lines.size(); i += batch) {
+                int end = Math.min(lines.size(), i + batch);
+                ByteBuffer compressed = ByteBuffer.allocate(16 * 1024);
+                long start = System.nanoTime();
+                for (int j = i; j < end; j++) {
+                    byte[] line = lines.get(j);
+                    raw += line.length;
+                    deflater.setInput(line);
+                    while (!deflater.needsInput()) {
+                        drain(deflater, out, compressed, Deflater.NO_FLUSH);
+                    }
+                }
+                int n;
+                do {
+                    n = drain(deflater, out, compressed, Deflater.SYNC_FLUSH);
+                } while (n == out.capacity());
+                nanos += System.nanoTime() - start;
+                wire += compressed.position();
+
+                // 클라이언트 쪽: 배치 하나를 받자마자 모두 풀 수 있어야 한다.
+                inflater.setInput(compressed.array(), 0, compressed.position());
+                int produced = 0;
+                while (!inflater.needsInput()) {
+                    produced += inflater.inflate(inflated, produced, inflated.length - produced);
+                }
+                int expected = 0;
+                for (int j = i; j < end; j++) expected += lines.get(j).length;
+                if (produced != expected) {
+                    throw new IllegalStateException("배치 복원 실패: " + produced + " != " + expected);
+                }
+            }
+        } catch (java.util.zip.DataFormatException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deflater.end();
+            inflater.end();
+        }
+
+        System.out.printf("레벨 %d: %d -> %d바이트 (%.1f%% 절약, 메시지당 %.1f바이트 절약), CPU %.2f us/메시지, %.0f 절약바이트/CPU-ms%n",
+                level, raw, wire, 100.0 * (raw - wire) / raw, (double) (raw - wire) / lines.size(),
+                nanos / 1000.0 / lines.size(), (raw - wire) / (nanos / 1e6));
+    }
+
+    private static int drain(Deflater deflater, ByteBuffer out, ByteBuffer sink, int mode) {
+        out.clear();
+        int n = deflater.deflate(out, mode);
+        out.flip();
+        sink.put(out);
+        return n;
+    }
+
+    // 한 연결이 받는 송신 흐름: 채팅 위주에 가끔 목록/타이머/안내
+    private static List<byte[]> traffic(int count, Random random) {
+        List<byte[]> lines = new ArrayList<>(count);
+        int timer = 120;
+        for (int i = 0; i < count; i++) {
+            String line;
+            int kind = random.nextInt(20);
+            if (kind < 13) {
+                line = "CHAT:P" + (1 + random.nextInt(8)) + ":" + CHAT[random.nextInt(CHAT.length)];
+            } else if (kind < 17) {
+                timer = timer <= 0 ? 120 : timer - 1;
+                line = "TIMER:DAY:" + timer;
+            } else if (kind < 19) {
+                StringBuilder sb = new StringBuilder("PLAYERS_LIST:");
+                for (int p = 1; p <= 8; p++) {
+                    if (p > 1) sb.append(',');
+                    sb.append('P').append(p).append(" - 닉네임").append(p)
+                            .append(random.nextInt(4) == 0 ? " (사망)" : " (생존)").append(" [").append("MPDC".charAt(p % 4)).append(']');
+                }
+                line = sb.toString();
+            } else {
+                line = "SYSTEM:밤이 되었습니다. 마피아는 처치할 대상을, 의사는 살릴 대상을 선택하세요.";
+            }
+            lines.add((line + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 대기 중인 연결 하나가 서버에서 차지하는 메모리 측정. 실행 중인 서버에 아무것도 보내지 않는 연결 N 개를 붙이고,
+ * jcmd 로 서버 프로세스의 GC 후 힙 사용량과 NMT(네이티브 메모리) 차이를 재서 연결 수로 나눈다.
+ * 클라이언트 쪽은 셀렉터 스레드 하나가 모든 연결의 수신(TIMER 등)을 비운다.
+ *
+ * 서버: java -XX:NativeMemoryTracking=summary Server --headless 9090 --max-connections 1100
+ * 실행: java ConnectionMemoryBench <서버 pid> <port> [연결 수]
+ */
+public class ConnectionMemoryBench {
+
+    private static final Pattern HISTOGRAM_TOTAL = Pattern.compile("Total\\s+\\d+\\s+(\\d+)");
+    private static final Pattern NMT_LINE = Pattern.compile("-\\s+(\\w[\\w ]*?) \\(reserved=(\\d+)KB ([+-]\\d+)KB, committed=(\\d+)KB ([+-]\\d+)KB\\)");
+    private static final Pattern NMT_TOTAL = Pattern.compile("Total: reserved=(\\d+)KB ([+-]\\d+)KB, committed=(\\d+)KB ([+-]\\d+)KB");
+
+    public static void main(String[] args) throws Exception {
+        String pid = args[0];
+        int port = Integer.parseInt(args[1]);
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        boolean nmt = jcmd(pid, "VM.native_memory", "baseline").contains("Baseline");
+        if (!nmt) {
+            System.out.println("서버가 -XX:NativeMemoryTracking=summary 없이 실행되어 힙만 잽니다.");
+        }
+        long heapBefore = liveHeapBytes(pid);
+
+        Selector selector = Selector.open();
+        List<SocketChannel> channels = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+            channels.add(channel);
+        }
+        Thread drain = new Thread(() -> drain(selector), "bench-drain");
+        drain.setDaemon(true);
+        drain.start();
+
+        // 모든 연결이 입장(HOST/GUEST_GRANTED)하고 TIMER 를 몇 번 받을 때까지
+        Thread.sleep(3000);
+        long heapAfter = liveHeapBytes(pid);
+
+        System.out.printf("연결 %d개: 살아 있는 힙 %+d KB -> 연결당 %.2f KB%n",
+                connections, (heapAfter - heapBefore) / 1024, (heapAfter - heapBefore) / 1024.0 / connections);
+        if (nmt) {
+            String diff = jcmd(pid, "VM.native_memory", "summary.diff");
+            Matcher total = NMT_TOTAL.matcher(diff);
+            if (total.find()) {
+                System.out.printf("  NMT 전체: reserved %s KB, committed %s KB -> 연결당 committed %.2f KB%n",
+                        total.group(2), total.group(4), Long.parseLong(total.group(4)) / (double) connections);
+            }
+            Matcher line = NMT_LINE.matcher(diff);
+            while (line.find()) {
+                long committed = Long.parseLong(line.group(5));
+                if (Math.abs(committed) >= 64 || line.group(1).equals("Thread")) {
+                    System.out.printf("  %-20s reserved %s KB, committed %s KB -> 연결당 committed %.2f KB%n",
+                            line.group(1), line.group(3), line.group(5), committed / (double) connections);
+                }
+            }
+        }
+
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        selector.close();
+    }
+
+    private static void drain(Selector selector) {
+        ByteBuffer sink = ByteBuffer.allocate(64 * 1024);
+        try {
+            while (selector.isOpen()) {
+                selector.select(500);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    sink.clear();
+                    if (((SocketChannel) key.channel()).read(sink) < 0) {
+                        key.cancel();
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (Exception ignored) {
+            // 측정이 끝나 셀렉터를 닫았다.
+        }
+    }
+
+    // 클래스 히스토그램은 전체 GC 뒤 살아 있는 객체만 센다. GC 종류와 상관없이 같은 기준으로 비교할 수 있다.
+    private static long liveHeapBytes(String pid) throws IOException, InterruptedException {
+        Matcher m = HISTOGRAM_TOTAL.matcher(jcmd(pid, "GC.class_histogram"));
+        return m.find() ? Long.parseLong(m.group(1)) : 0;
+    }
+
+    private static String jcmd(String pid, String... command) throws IOException, InterruptedException {
+        List<String> argv = new ArrayList<>();
+        argv.add("jcmd");
+        argv.add(pid);
+        for (String c : command) {
+            argv.add(c);
+        }
+        Process process = new ProcessBuilder(argv).redirectErrorStream(true).start();
+        byte[] output;
+        try (InputStream in = process.getInputStream()) {
+            output = in.readAllBytes();
+        }
+        process.waitFor();
+        return new String(output, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 블로킹 없는 서버 접속. 호스트 이름을 해석한 뒤 모든 주소에 조금씩 시차를 두고 동시에 접속을 시도하고,
+ * 가장 먼저 성공한 소켓 하나만 남긴다. 전체 제한 시간이 있고 진행 중에 취소할 수 있다.
+ * 호출한 스레드(EDT)는 기다리지 않으며 결과는 CompletableFuture 로 받는다.
+ */
+public class Connector {
+
+    public static final int DEFAULT_TIMEOUT_MILLIS = 5000;
+    // 다음 주소 시도를 시작하기 전 앞 주소에 주는 유예 시간
+    private static final long ATTEMPT_STAGGER_MILLIS = 250;
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "connector");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 누적 통계
+    private static final AtomicLong succeeded = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong timedOut = new AtomicLong();
+    private static final AtomicLong cancelled = new AtomicLong();
+    private static final AtomicLong totalConnectMillis = new AtomicLong();
+
+    /**
+     * 접속 결과와 소요 시간.
+     */
+    public static final class Result {
+        public final Socket socket;
+        public final InetSocketAddress address;
+        public final long resolveMillis;
+        public final long connectMillis;
+        public final int addressCount;
+
+        Result(Socket socket, InetSocketAddress address, long resolveMillis, long connectMillis, int addressCount) {
+            this.socket = socket;
+            this.address = address;
+            this.resolveMillis = resolveMillis;
+            this.connectMillis = connectMillis;
+            this.addressCount = addressCount;
+        }
+
+        @Override
+        public String toString() {
+            return address + " (이름 해석 " + resolveMillis + "ms, 연결 " + connectMillis + "ms, 주소 " + addressCount + "개)";
+        }
+    }
+
+    /**
+     * 진행 중인 접속 하나. cancel 하면 열려 있는 모든 시도 소켓을 닫는다.
+     */
+    public static final class Attempt {
+        private final CompletableFuture<Result> result = new CompletableFuture<>();
+        private final List<Socket> sockets = new ArrayList<>();
+        private final long startedAt = System.nanoTime();
+
+        public CompletableFuture<Result> result() {
+            return result;
+        }
+
+        public void cancel() {
+            if (result.completeExceptionally(new CancellationException("사용자가 연결을 취소했습니다."))) {
+                cancelled.incrementAndGet();
+            }
+        }
+
+        public long elapsedMillis() {
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+
+        // 이미 끝난 시도면 소켓을 바로 닫고 false
+        private boolean register(Socket s) {
+            synchronized (sockets) {
+                if (result.isDone()) {
+                    closeQuietly(s);
+                    return false;
+                }
+                sockets.add(s);
+                return true;
+            }
+        }
+
+        // 이긴 소켓을 뺀 나머지를 닫는다.
+        private void closeLosers() {
+            Socket winner = result.isCompletedExceptionally() ? null : result.getNow(null).socket;
+            synchronized (sockets) {
+                for (Socket s : sockets) {
+                    if (s != winner) closeQuietly(s);
+                }
+                sockets.clear();
+            }
+        }
+    }
+
+    public static Attempt connect(String host, int port) {
+        return connect(host, port, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public static Attempt connect(String host, int port, int timeoutMillis) {
+        Attempt attempt = new Attempt();
+        attempt.result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        attempt.result.whenComplete((r, e) -> {
+            attempt.closeLosers();
+            if (e == null) {
+                succeeded.incrementAndGet();
+                totalConnectMillis.addAndGet(attempt.elapsedMillis());
+            } else if (e instanceof TimeoutException) {
+                timedOut.incrementAndGet();
+            } else if (!(e instanceof CancellationException)) {
+                failed.incrementAndGet();
+            }
+        });
+        executor.execute(() -> resolveAndConnect(attempt, host, port, timeoutMillis));
+        return attempt;
+    }
+
+    public static String metrics() {
+        long ok = succeeded.get();
+        return "성공 " + ok + "회 (평균 " + (ok == 0 ? 0 : totalConnectMillis.get() / ok) + "ms), 실패 " + failed.get()
+                + "회, 시간 초과 " + timedOut.get() + "회, 취소 " + cancelled.get() + "회";
+    }
+
+    private static void resolveAndConnect(Attempt attempt, String host, int port, int timeoutMillis) {
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (IOException e) {
+            attempt.result.completeExceptionally(e);
+            return;
+        }
+        long resolveMillis = attempt.elapsedMillis();
+
+        AtomicInteger remaining = new AtomicInteger(addresses.length);
+        for (int i = 0; i < addresses.length; i++) {
+            InetSocketAddress address = new InetSocketAddress(addresses[i], port);
+            long delay = i * ATTEMPT_STAGGER_MILLIS;
+            executor.execute(() -> {
+                try {
+                    if (delay > 0) Thread.sleep(delay);
+                    int left = (int) (timeoutMillis - attempt.elapsedMillis());
+                    if (left <= 0 || attempt.result.isDone()) {
+                        throw new SocketTimeoutException("연결 시간 초과");
+                    }
+
+                    Socket s = new Socket();
+                    if (!attempt.register(s)) return;
+                    long start = System.nanoTime();
+                    s.connect(address, left);
+                    s.setTcpNoDelay(true);
+                    Result r = new Result(s, address, resolveMillis, (System.nanoTime() - start) / 1_000_000, addresses.length);
+                    if (!attempt.result.complete(r)) {
+                        closeQuietly(s);
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // 모든 주소가 실패했을 때만 마지막 오류로 끝낸다.
+                    if (remaining.decrementAndGet() == 0) {
+                        attempt.result.completeExceptionally(e);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void closeQuietly(Socket s) {
+        try {
+            s.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
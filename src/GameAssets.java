@@ -0,0 +1,101 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 게임 화면 이미지 캐시. 원본은 한 번만 디코딩하고 크기별로 축소한 결과도 보관한다.
+ * preload 는 접속 화면이 뜬 뒤 백그라운드 스레드에서 게임 화면 에셋을 미리 데운다.
+ * 같은 이미지를 EDT 와 preload 가 동시에 요청하면 먼저 시작한 쪽의 디코딩을 기다린다.
+ */
+public final class GameAssets {
+
+    public static final String BACKGROUND = "background.png";
+    public static final String TARGET_MARK = "mark_target.png";
+
+    private static final String[] ICONS = {
+            "unknown.png", "citizen.png", "mafia.png", "police.png", "doctor.png", TARGET_MARK
+    };
+
+    private static final Map<String, Optional<BufferedImage>> cache = new ConcurrentHashMap<>();
+    private static final AtomicBoolean preloadStarted = new AtomicBoolean(false);
+    private static volatile boolean warm = false;
+
+    private GameAssets() {
+    }
+
+    /**
+     * 원본 이미지. 클래스 경로에 없으면 null.
+     */
+    public static BufferedImage image(String name) {
+        return cache.computeIfAbsent(name, GameAssets::decode).orElse(null);
+    }
+
+    /**
+     * size x size 로 축소한 이미지. 원본이 없으면 투명한 빈 이미지.
+     */
+    public static BufferedImage scaled(String name, int size) {
+        String key = name + "@" + size;
+        Optional<BufferedImage> cached = cache.get(key);
+        if (cached != null) {
+            return cached.get();
+        }
+        // 원본 디코딩을 먼저 끝낸다(computeIfAbsent 안에서 같은 맵을 다시 갱신할 수 없음).
+        BufferedImage original = image(name);
+        return cache.computeIfAbsent(key, k -> {
+            BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            if (original != null) {
+                Graphics2D g2d = scaled.createGraphics();
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.drawImage(original, 0, 0, size, size, null);
+                g2d.dispose();
+            }
+            return Optional.of(scaled);
+        }).get();
+    }
+
+    /**
+     * 게임 화면 에셋(배경, 아이콘 크기들)을 백그라운드에서 디코딩한다. 여러 번 불러도 한 번만 돈다.
+     */
+    public static void preload(int... iconSizes) {
+        if (!preloadStarted.compareAndSet(false, true)) {
+            return;
+        }
+        Thread t = new Thread(() -> {
+            long start = System.nanoTime();
+            image(BACKGROUND);
+            for (String icon : ICONS) {
+                for (int size : iconSizes) {
+                    scaled(icon, size);
+                }
+            }
+            warm = true;
+            System.out.println("게임 에셋 미리 로드 완료 (" + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        }, "asset-preload");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        t.start();
+    }
+
+    public static boolean isWarm() {
+        return warm;
+    }
+
+    private static Optional<BufferedImage> decode(String name) {
+        String path = "/" + name;
+        try {
+            java.net.URL imageUrl = GameAssets.class.getResource(path);
+            if (imageUrl != null) {
+                return Optional.ofNullable(ImageIO.read(imageUrl));
+            }
+            System.err.println("경고: 클래스 경로에서 " + path + " 이미지를 찾을 수 없습니다.");
+        } catch (IOException e) {
+            System.err.println("경고: 이미지 로드 실패: " + path);
+        }
+        return Optional.empty();
+    }
+}
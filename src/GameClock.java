@@ -0,0 +1,61 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버 스케줄링이 쓰는 시계. 운영에서는 WallClock, 테스트/시뮬레이션에서는 VirtualClock 을 넣는다.
+ */
+public interface GameClock {
+
+    /**
+     * 예약된 작업. cancel 은 이미 실행 중인 작업을 중단시키지 않는다.
+     */
+    interface Task {
+        void cancel();
+    }
+
+    long nanoTime();
+
+    default long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanoTime());
+    }
+
+    Task schedule(Runnable task, long delay, TimeUnit unit);
+
+    Task scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit);
+
+    /**
+     * 실제 시간. ScheduledExecutorService 데몬 스레드에서 작업을 실행한다.
+     */
+    final class WallClock implements GameClock {
+        private final ScheduledExecutorService executor;
+
+        public WallClock(String threadName, int threads) {
+            this.executor = Executors.newScheduledThreadPool(threads, r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public Task schedule(Runnable task, long delay, TimeUnit unit) {
+            return wrap(executor.schedule(task, delay, unit));
+        }
+
+        @Override
+        public Task scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            return wrap(executor.scheduleAtFixedRate(task, initialDelay, period, unit));
+        }
+
+        private static Task wrap(ScheduledFuture<?> future) {
+            return () -> future.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder 사용자 이벤트. 녹화하지 않을 때는 begin/end 와 shouldCommit 검사만 남고
+ * 문자열 가공 등은 shouldCommit 이 참일 때만 한다.
+ *
+ * 녹화: java -XX:StartFlightRecording=filename=mafia.jfr,settings=profile Server --headless 9090
+ * 확인: jfr print --events 'mafia.*' mafia.jfr
+ */
+final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    @Name("mafia.PhaseTransition")
+    @Label("Phase Transition")
+    @Category({"Mafia", "Server"})
+    @Description("낮/밤 전환. 예정 시각 대비 늦어진 정도와 전환 처리 시간")
+    static final class PhaseTransition extends Event {
+        @Label("From")
+        String from;
+        @Label("To")
+        String to;
+        @Label("Scheduled Delay")
+        @Timespan(Timespan.MILLISECONDS)
+        long scheduledDelay;
+        @Label("Lateness")
+        @Description("예정 시각보다 늦게 실행된 정도 (게임 시계 기준)")
+        @Timespan(Timespan.NANOSECONDS)
+        long lateness;
+    }
+
+    @Name("mafia.Broadcast")
+    @Label("Broadcast")
+    @Category({"Mafia", "Server"})
+    static final class Broadcast extends Event {
+        @Label("Message Type")
+        String messageType;
+        @Label("Target")
+        String target;
+        @Label("Fan-out")
+        int fanOut;
+        @Label("Bytes")
+        int bytes;
+
+        static Broadcast start(String target) {
+            Broadcast event = new Broadcast();
+            event.begin();
+            event.target = target;
+            return event;
+        }
+
+        void finish(String message, OutboundFrame frame, int fanOut) {
+            end();
+            if (shouldCommit()) {
+                this.messageType = messageType(message);
+                this.fanOut = fanOut;
+                this.bytes = frame.length();
+                commit();
+            }
+        }
+    }
+
+    @Name("mafia.ClientHandlersLock")
+    @Label("clientHandlers Lock")
+    @Category({"Mafia", "Server"})
+    @Description("clientHandlers 모니터를 얻기까지 기다린 시간")
+    @Threshold("1 ms")
+    static final class LockWait extends Event {
+        @Label("Site")
+        String site;
+
+        static LockWait start(String site) {
+            LockWait event = new LockWait();
+            event.begin();
+            event.site = site;
+            return event;
+        }
+
+        void acquired() {
+            end();
+            if (shouldCommit()) {
+                commit();
+            }
+        }
+    }
+
+    @Name("mafia.Command")
+    @Label("Command")
+    @Category({"Mafia", "Server"})
+    @Description("수신한 한 줄의 처리 시간 (배치 송신 포함)")
+    static final class Command extends Event {
+        @Label("Command")
+        String command;
+        @Label("Player")
+        int player;
+        @Label("Length")
+        int length;
+
+        static Command start() {
+            Command event = new Command();
+            event.begin();
+            return event;
+        }
+
+        void finish(String line, int player) {
+            end();
+            if (shouldCommit()) {
+                this.command = commandName(line);
+                this.player = player;
+                this.length = line.length();
+                commit();
+            }
+        }
+    }
+
+    @Name("mafia.ClientMessage")
+    @Label("Client Message")
+    @Category({"Mafia", "Client"})
+    @Description("서버 메시지 한 줄의 EDT 처리. 이벤트 시간은 EDT 처리 시간만 센다.")
+    static final class ClientMessage extends Event {
+        @Label("Message Type")
+        String messageType;
+        @Label("Queue Delay")
+        @Description("수신 스레드에서 읽은 뒤 EDT 가 처리를 시작하기까지")
+        @Timespan(Timespan.NANOSECONDS)
+        long queueDelay;
+
+        /**
+         * EDT 에 넘길 작업을 감싼다. 이벤트가 꺼져 있으면 작업을 그대로 돌려준다.
+         */
+        static Runnable wrap(String message, Runnable task) {
+            if (!new ClientMessage().isEnabled()) {
+                return task;
+            }
+            long receivedAt = System.nanoTime();
+            return () -> {
+                ClientMessage event = new ClientMessage();
+                event.begin();
+                long startedAt = System.nanoTime();
+                try {
+                    task.run();
+                } finally {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.messageType = messageType(message);
+                        event.queueDelay = startedAt - receivedAt;
+                        event.commit();
+                    }
+                }
+            };
+        }
+    }
+
+    // "SYSTEM:..." -> "SYSTEM"
+    static String messageType(String message) {
+        int colon = message.indexOf(':');
+        return colon > 0 ? message.substring(0, colon) : message;
+    }
+
+    // "/vote 3" -> "/vote", "CHAT:..." -> "CHAT"
+    static String commandName(String line) {
+        if (line.startsWith("/")) {
+            int space = line.indexOf(' ');
+            return space > 0 ? line.substring(0, space) : line;
+        }
+        return messageType(line);
+    }
+}
@@ -1,16 +1,13 @@
 import javax.swing.*;
 import java.awt.*;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import javax.imageio.ImageIO;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.Map;
 
 public class GamePanel extends JPanel {
 
-    private Image backgroundImage;
     private JPanel contentPanel;
     private JScrollPane chatScrollPane;
 
@@ -32,6 +29,27 @@ public class GamePanel extends JPanel {
 
     private static final int PROFILE_ICON_SIZE = 50;
     private static final int ROLE_ICON_SIZE = 40;
+    private static final int CHAT_ICON_SIZE = 40;
+    // 말풍선 본문 폭 = 채팅창 폭의 70% - (프로필 아이콘 + 말풍선 여백/꼬리)
+    private static final int BUBBLE_CHROME_WIDTH = 90;
+    private static final int DEFAULT_CHAT_WIDTH = 380;
+
+    // [신규] 메시지마다 Font 를 새로 만들지 않고 공유한다.
+    private static final Font TIMER_FONT = new Font("맑은 고딕", Font.BOLD, 14);
+    private static final Font SENDER_FONT = new Font("맑은 고딕", Font.BOLD, 10);
+    private static final Font MESSAGE_FONT = new Font("맑은 고딕", Font.PLAIN, 10);
+    private static final Font SYSTEM_FONT = new Font("맑은 고딕", Font.PLAIN, 12);
+
+    // 메시지 한 줄을 만드는 데 걸린 시간 (appendChatMessage 기준)
+    private static long messageCount = 0;
+    private static long messageNanos = 0;
+
+    /**
+     * [신규] 이 화면이 쓰는 이미지를 백그라운드에서 미리 디코딩한다. 접속 화면이 뜬 직후 호출.
+     */
+    public static void preloadAssets() {
+        GameAssets.preload(PROFILE_ICON_SIZE, ROLE_ICON_SIZE, CHAT_ICON_SIZE);
+    }
 
     private BufferedImage loadProfileImage(String playerInfo) {
         String playerNumber = extractPlayerNumber(playerInfo);
@@ -55,74 +73,16 @@ public class GamePanel extends JPanel {
             }
         }
 
-        String path = "/" + imageName;
-
-        try {
-            java.net.URL imageUrl = getClass().getResource(path);
-            if (imageUrl != null) {
-                BufferedImage original = ImageIO.read(imageUrl);
-                BufferedImage scaled = new BufferedImage(PROFILE_ICON_SIZE, PROFILE_ICON_SIZE, BufferedImage.TYPE_INT_ARGB);
-                Graphics2D g2d = scaled.createGraphics();
-                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-                g2d.drawImage(original, 0, 0, PROFILE_ICON_SIZE, PROFILE_ICON_SIZE, null);
-                g2d.dispose();
-                return scaled;
-            }
-        } catch (IOException e) {
-            System.err.println("경고: 기본/역할 이미지 에셋을 찾을 수 없습니다: " + path);
-        }
-        return new BufferedImage(PROFILE_ICON_SIZE, PROFILE_ICON_SIZE, BufferedImage.TYPE_INT_ARGB);
-    }
-
-    private BufferedImage loadMarkImage(String imageName) {
-        String path = "/" + imageName;
-        try {
-            java.net.URL imageUrl = getClass().getResource(path);
-            if (imageUrl != null) {
-                BufferedImage original = ImageIO.read(imageUrl);
-                BufferedImage scaled = new BufferedImage(PROFILE_ICON_SIZE, PROFILE_ICON_SIZE, BufferedImage.TYPE_INT_ARGB);
-                Graphics2D g2d = scaled.createGraphics();
-                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-                g2d.drawImage(original, 0, 0, PROFILE_ICON_SIZE, PROFILE_ICON_SIZE, null);
-                g2d.dispose();
-                return scaled;
-            }
-        } catch (IOException e) {
-            System.err.println("경고: 마크 이미지 에셋을 찾을 수 없습니다: " + path);
-        }
-        return new BufferedImage(PROFILE_ICON_SIZE, PROFILE_ICON_SIZE, BufferedImage.TYPE_INT_ARGB);
+        return GameAssets.scaled(imageName, PROFILE_ICON_SIZE);
     }
 
     public ImageIcon loadRoleIcon(String role) {
-        String imagePath = "/" + role.toLowerCase() + ".png";
-        try {
-            java.net.URL imageUrl = getClass().getResource(imagePath);
-            if (imageUrl != null) {
-                Image img = ImageIO.read(imageUrl).getScaledInstance(
-                        ROLE_ICON_SIZE, ROLE_ICON_SIZE, Image.SCALE_SMOOTH);
-                return new ImageIcon(img);
-            }
-        } catch (IOException e) {
-            System.err.println("경고: 역할 이미지 로드 실패: " + imagePath);
-        }
-        return new ImageIcon(new BufferedImage(ROLE_ICON_SIZE, ROLE_ICON_SIZE, BufferedImage.TYPE_INT_ARGB));
+        return new ImageIcon(GameAssets.scaled(role.toLowerCase() + ".png", ROLE_ICON_SIZE));
     }
 
     public GamePanel(Client client) {
         this.client = client;
 
-        try {
-            java.net.URL imageUrl = getClass().getResource("/background.png");
-            if (imageUrl != null) {
-                backgroundImage = ImageIO.read(imageUrl);
-            } else {
-                System.err.println("경고: 클래스 경로에서 /background.png 이미지를 찾을 수 없습니다. (경로 확인 필요)");
-            }
-        } catch (IOException e) {
-            System.err.println("배경 이미지 로드 중 오류 발생.");
-            e.printStackTrace();
-        }
-
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         setPreferredSize(new Dimension(400, 600));
@@ -136,7 +96,7 @@ public class GamePanel extends JPanel {
         newHeaderPanel.add(titlePanel, BorderLayout.WEST);
 
         timerLabel = new JLabel("현재 단계: 대기 중", SwingConstants.RIGHT);
-        timerLabel.setFont(new Font("맑은 고딕", Font.BOLD, 14));
+        timerLabel.setFont(TIMER_FONT);
         timerLabel.setForeground(Color.BLUE);
         timerLabel.setOpaque(false);
 
@@ -257,16 +217,7 @@ public class GamePanel extends JPanel {
         String markedPlayer = client.getMarkedPlayer();
 
         if (markedPlayer.equals("P" + playerNumber) && currentPhase.equals("NIGHT")) {
-            String targetPath = "/mark_target.png";
-            try {
-                java.net.URL targetUrl = getClass().getResource(targetPath);
-                if (targetUrl != null) {
-                    BufferedImage targetMark = ImageIO.read(targetUrl);
-                    g2d.drawImage(targetMark, 0, 0, PROFILE_ICON_SIZE, PROFILE_ICON_SIZE, null);
-                }
-            } catch (IOException e) {
-                System.err.println("경고: 대상 마크 이미지 로드 실패: " + targetPath);
-            }
+            g2d.drawImage(GameAssets.scaled(GameAssets.TARGET_MARK, PROFILE_ICON_SIZE), 0, 0, null);
         }
 
         g2d.dispose();
@@ -277,6 +228,8 @@ public class GamePanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        // 배경은 preloadAssets 에서 미리 디코딩해 두므로 첫 그리기에서 기다리지 않는다.
+        Image backgroundImage = GameAssets.image(GameAssets.BACKGROUND);
         if (backgroundImage != null) {
             g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
         }
@@ -302,8 +255,13 @@ public class GamePanel extends JPanel {
     }
 
     public void appendChatMessage(String sender, String message, boolean isMyMessage, String type) {
+        long start = System.nanoTime();
+        int chatWidth = chatScrollPane != null && chatScrollPane.getWidth() > 0 ? chatScrollPane.getWidth() : DEFAULT_CHAT_WIDTH;
+        int maxChatWidth = (int) (chatWidth * 0.70);
+
         if (sender.equals("시스템")) {
-            JLabel systemLabel = new JLabel("<html><font color='gray'>[시스템] " + message + "</font></html>");
+            // [수정] HTML 대신 평문 렌더러 (메시지 안의 태그는 글자 그대로 표시)
+            ChatTextView systemLabel = new ChatTextView("[시스템] " + message, SYSTEM_FONT, Color.GRAY, chatWidth - 40, true);
             systemLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
             systemLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
@@ -324,13 +282,12 @@ public class GamePanel extends JPanel {
                 });
             }
         } else {
-            ChatMessagePanel chatRow = new ChatMessagePanel(sender, message, isMyMessage, type);
+            ChatMessagePanel chatRow = new ChatMessagePanel(sender, message, isMyMessage, type, maxChatWidth - BUBBLE_CHROME_WIDTH);
 
             JPanel alignmentRow = new JPanel();
             alignmentRow.setLayout(new FlowLayout(isMyMessage ? FlowLayout.RIGHT : FlowLayout.LEFT, 0, 0));
             alignmentRow.setOpaque(false);
 
-            int maxChatWidth = (int) (chatScrollPane.getWidth() * 0.70);
             chatRow.setMaximumSize(new Dimension(maxChatWidth, Integer.MAX_VALUE));
 
             alignmentRow.add(chatRow);
@@ -352,6 +309,17 @@ public class GamePanel extends JPanel {
                 }
             });
         }
+
+        messageCount++;
+        messageNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * 지금까지 만든 채팅 줄 수와 한 줄당 평균 생성 시간.
+     */
+    public static String renderStats() {
+        return "채팅 " + messageCount + "줄, 평균 " + (messageCount == 0 ? 0 : messageNanos / messageCount / 1000) + "us/줄, "
+                + ChatTextView.cacheStats();
     }
 
     public void appendChatMessage(String sender, String message, boolean isMyMessage) {
@@ -620,22 +588,9 @@ public class GamePanel extends JPanel {
 
     class ChatMessagePanel extends JPanel {
 
-        private static final ImageIcon Unknown_ICON = loadUnknownIcon();
-
-        private static ImageIcon loadUnknownIcon() {
-            try {
-                java.net.URL imageUrl = GamePanel.class.getResource("/unknown.png");
-                if (imageUrl != null) {
-                    Image img = ImageIO.read(imageUrl).getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                    return new ImageIcon(img);
-                }
-            } catch (IOException e) {
-                System.err.println("기본 프로필 이미지 로드 실패: /unknown.png");
-            }
-            return new ImageIcon(new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB));
-        }
+        private static final ImageIcon Unknown_ICON = new ImageIcon(GameAssets.scaled("unknown.png", CHAT_ICON_SIZE));
 
-        public ChatMessagePanel(String sender, String message, boolean isMyMessage, String type) {
+        public ChatMessagePanel(String sender, String message, boolean isMyMessage, String type, int wrapWidth) {
             setLayout(new FlowLayout(isMyMessage ? FlowLayout.RIGHT : FlowLayout.LEFT, 0, 0));
             setOpaque(false);
             setBorder(BorderFactory.createEmptyBorder(5, 0, 5, 0));
@@ -649,7 +604,9 @@ public class GamePanel extends JPanel {
             profileLabel.setAlignmentY(Component.BOTTOM_ALIGNMENT);
 
             JLabel senderLabel = new JLabel(sender);
-            senderLabel.setFont(new Font("맑은 고딕", Font.BOLD, 10));
+            // 닉네임이 "<html>" 로 시작해도 마크업으로 해석하지 않는다.
+            senderLabel.putClientProperty("html.disable", Boolean.TRUE);
+            senderLabel.setFont(SENDER_FONT);
             senderLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 2, 5));
             senderLabel.setAlignmentX(isMyMessage ? Component.RIGHT_ALIGNMENT : Component.LEFT_ALIGNMENT);
 
@@ -663,10 +620,8 @@ public class GamePanel extends JPanel {
 
             BubblePanel bubblePanel = new BubblePanel(isMyMessage, type);
 
-            JLabel messageLabel = new JLabel("<html>" + message + "</html>");
-            messageLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 10));
-            messageLabel.setForeground(isMyMessage ? Color.BLACK : Color.DARK_GRAY);
-            messageLabel.setOpaque(false);
+            ChatTextView messageLabel = new ChatTextView(message, MESSAGE_FONT,
+                    isMyMessage ? Color.BLACK : Color.DARK_GRAY, wrapWidth, false);
 
             bubblePanel.add(messageLabel);
             messageBubbleContainer.add(senderLabel);
@@ -0,0 +1,181 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 게임 화면(GamePanel) 갱신 비용 측정. 화면 없이(headless) 정해진 채팅/플레이어/타이머 흐름을 GamePanel 에 넣고,
+ * 채팅이 100 -> 10000 줄로 늘어날 때 각 갱신과 BufferedImage 로의 전체 그리기가 얼마나 걸리고 얼마나 할당하는지 잰다.
+ * 모든 작업은 EDT 에서 돌고, 할당량은 CommandParserBench 처럼 EDT 의 스레드별 할당 바이트로 잰다.
+ * appendChatMessage 가 invokeLater 로 미루는 레이아웃/스크롤은 "미룬 작업" 으로 따로 잰다.
+ *
+ * 아이콘 그리기까지 재려면 이미지(src/*.png)가 클래스 경로에 있어야 한다.
+ *
+ * 실행: java -Djava.awt.headless=true GamePanelBench [최대 메시지 수] [작업당 반복 수]
+ */
+public class GamePanelBench {
+
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 600;
+    private static final int PLAYERS = 8;
+
+    private static final String[] SAMPLES = {
+            "누가 마피아일까요?",
+            "어젯밤에 수상한 사람 있었나요?",
+            "저는 시민입니다. 어제 P3 님이 계속 말을 돌리던데 한 번 들어봐야 할 것 같아요.",
+            "일단 투표합시다.",
+            "ㅋㅋㅋㅋ",
+    };
+    private static final String[] PHASES = {"DAY", "NIGHT", "WAITING"};
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // 표시 중인 타깃 (updatePlayerMarks 가 매번 다른 아이콘을 그리게 바꾼다)
+    private static volatile String markedPlayer = "";
+
+    private static GamePanel panel;
+    private static BufferedImage canvas;
+    private static long edtThread;
+    private static int messages;
+
+    public static void main(String[] args) throws Exception {
+        int maxMessages = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int repeat = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Client client = new Client("MAFIA", 1) {
+            @Override
+            public String getMarkedPlayer() {
+                return markedPlayer;
+            }
+        };
+        client.getInvestigatedRoles().put("P2", "CITIZEN");
+        client.getInvestigatedRoles().put("P5", "MAFIA");
+
+        SwingUtilities.invokeAndWait(() -> {
+            edtThread = Thread.currentThread().getId();
+            panel = new GamePanel(client);
+            panel.setSize(WIDTH, HEIGHT);
+            canvas = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            panel.updatePlayerList(players(0));
+        });
+
+        // 워밍업 (클래스 로딩, 글꼴/아이콘 초기화, JIT). 채팅 줄 수는 측정 전에 비운다.
+        measure(repeat, i -> panel.updatePlayerList(players(i)));
+        measure(repeat, i -> panel.updateTimer(PHASES[i % PHASES.length], i % 60));
+        measure(repeat, i -> panel.updatePlayerMarks());
+        measure(repeat, i -> paint());
+        run(repeat * 5, GamePanelBench::appendMessage);
+        SwingUtilities.invokeAndWait(() -> panel.clearGameState());
+        drain();
+        messages = 0;
+
+        System.out.printf("%-8s | %-22s | %-22s | %-22s | %-22s | %-22s | %-22s%n", "채팅 줄",
+                "appendChatMessage", "미룬 작업(줄당)", "updatePlayerList", "updatePlayerMarks", "updateTimer", "전체 그리기");
+        for (int target = 100; target <= maxMessages; target *= 10) {
+            int batch = target - messages;
+            long[] cost = run(batch, GamePanelBench::appendMessage);
+            String append = format(cost[0], cost[1], batch);
+            String deferred = format(cost[2], cost[3], batch);
+
+            String list = measure(repeat, i -> panel.updatePlayerList(players(i)));
+            String marks = measure(repeat, i -> {
+                markedPlayer = "P" + (1 + i % PLAYERS);
+                panel.updatePlayerMarks();
+            });
+            String timer = measure(repeat, i -> panel.updateTimer(PHASES[i % PHASES.length], i % 60));
+            String paint = measure(Math.max(10, repeat / 10), i -> paint());
+
+            System.out.printf("%-8d | %-22s | %-22s | %-22s | %-22s | %-22s | %-22s%n",
+                    messages, append, deferred, list, marks, timer, paint);
+        }
+        System.out.println(GamePanel.renderStats());
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("채팅 %d줄을 들고 있는 힙: %.1f MB%n", messages,
+                (runtime.totalMemory() - runtime.freeMemory()) / 1024.0 / 1024.0);
+    }
+
+    private interface Op {
+        void run(int i);
+    }
+
+    /**
+     * op 를 EDT 에서 count 번 돌리고 op 가 invokeLater 로 미룬 작업까지 끝낸 뒤, 합친 비용을 "us/회, 바이트/회" 로 돌려준다.
+     */
+    private static String measure(int count, Op op) throws Exception {
+        long[] cost = run(count, op);
+        return format(cost[0] + cost[2], cost[1] + cost[3], count);
+    }
+
+    /**
+     * {루프 나노초, 루프 바이트, 미룬 작업 나노초, 미룬 작업 바이트}. 미룬 작업은 루프 뒤 큐에 쌓인 invokeLater 들이다.
+     */
+    private static long[] run(int count, Op op) throws Exception {
+        long[] cost = new long[4];
+        long[] mark = new long[2];
+        SwingUtilities.invokeAndWait(() -> {
+            long bytes = threads.getThreadAllocatedBytes(edtThread);
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                op.run(i);
+            }
+            mark[0] = System.nanoTime();
+            mark[1] = threads.getThreadAllocatedBytes(edtThread);
+            cost[0] = mark[0] - start;
+            cost[1] = mark[1] - bytes;
+        });
+        // 루프가 큐에 넣은 작업이 먼저 돌고 나서 이 작업이 끝 시각을 찍는다.
+        SwingUtilities.invokeAndWait(() -> {
+            cost[2] = System.nanoTime() - mark[0];
+            cost[3] = threads.getThreadAllocatedBytes(edtThread) - mark[1];
+        });
+        drain();
+        return cost;
+    }
+
+    // 미룬 작업이 다시 미룬 작업까지 비운다.
+    private static void drain() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            SwingUtilities.invokeAndWait(() -> { });
+        }
+    }
+
+    private static String format(long nanos, long bytes, int count) {
+        return String.format("%8.1fus %8.0fB", nanos / 1000.0 / count, (double) bytes / count);
+    }
+
+    private static void appendMessage(int i) {
+        int n = messages++;
+        String base = SAMPLES[n % SAMPLES.length];
+        String text = (n % 10 == 0) ? base + " #" + n : base;
+        if (n % 25 == 0) {
+            panel.appendChatMessage("시스템", "P" + (1 + n % PLAYERS) + " 님이 투표했습니다. " + text, false);
+        } else if (n % 7 == 0) {
+            panel.appendChatMessage("P" + (1 + n % PLAYERS), text, false, "MAFIA");
+        } else {
+            panel.appendChatMessage("P" + (1 + n % PLAYERS), text, n % 5 == 0);
+        }
+    }
+
+    // 한 명씩 돌아가며 접속/퇴장한 것처럼 닉네임이 조금씩 바뀐다.
+    private static List<String> players(int round) {
+        List<String> players = new ArrayList<>(PLAYERS);
+        for (int p = 1; p <= PLAYERS; p++) {
+            players.add("P" + p + " - 플레이어" + (p == 1 + round % PLAYERS ? p + "*" : p));
+        }
+        return players;
+    }
+
+    private static void paint() {
+        panel.validate();
+        Graphics2D g = canvas.createGraphics();
+        try {
+            panel.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+}
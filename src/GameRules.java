@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 게임 판정 규칙(직업 구성, 밤 결과, 투표 집계, 승패). 서버와 시뮬레이터가 같이 쓴다.
+ * 소켓/Swing 에 의존하지 않으며 플레이어 타입은 호출한 쪽이 정한다.
+ */
+public final class GameRules {
+
+    public static final String MAFIA = "MAFIA";
+    public static final String POLICE = "POLICE";
+    public static final String DOCTOR = "DOCTOR";
+    public static final String CITIZEN = "CITIZEN";
+
+    public enum Winner { NONE, MAFIA, CITIZENS }
+
+    public enum VoteOutcome { NO_VOTES, TIE, NO_MAJORITY, EXECUTED }
+
+    /**
+     * 투표 집계 결과. EXECUTED 일 때만 target 이 있다.
+     */
+    public static final class VoteResult<T> {
+        public final VoteOutcome outcome;
+        public final T target;
+        public final int maxVotes;
+        public final int majorityThreshold;
+
+        VoteResult(VoteOutcome outcome, T target, int maxVotes, int majorityThreshold) {
+            this.outcome = outcome;
+            this.target = target;
+            this.maxVotes = maxVotes;
+            this.majorityThreshold = majorityThreshold;
+        }
+    }
+
+    private GameRules() {
+    }
+
+    public static int mafiaCount(int players) {
+        return (players >= 6) ? 2 : 1;
+    }
+
+    /**
+     * 섞인 플레이어 순서대로 나눠 줄 직업 목록. 마피아, 경찰, 의사 순으로 채우고 나머지는 시민.
+     */
+    public static List<String> roleDeck(int players) {
+        return roleDeck(players, mafiaCount(players));
+    }
+
+    public static List<String> roleDeck(int players, int mafias) {
+        List<String> deck = new ArrayList<>(players);
+        for (int i = 0; i < mafias && deck.size() < players; i++) {
+            deck.add(MAFIA);
+        }
+        if (deck.size() < players) deck.add(POLICE);
+        if (deck.size() < players) deck.add(DOCTOR);
+        while (deck.size() < players) {
+            deck.add(CITIZEN);
+        }
+        return deck;
+    }
+
+    /**
+     * 밤에 실제로 죽는 플레이어. 지목이 없거나 의사가 같은 사람을 살렸으면 null.
+     */
+    public static <T> T nightVictim(T killTarget, T saveTarget) {
+        if (killTarget == null || killTarget.equals(saveTarget)) {
+            return null;
+        }
+        return killTarget;
+    }
+
+    /**
+     * 살아 있는 투표자가 살아 있는 대상에게 던진 표만 센다.
+     * 최다 득표가 한 명이고 생존자 과반수((생존자 / 2) + 1) 이상이면 처형.
+     */
+    public static <T> VoteResult<T> tally(Map<T, T> votes, Predicate<T> alive, int livingPlayers) {
+        Map<T, Integer> voteTally = new HashMap<>();
+        for (Map.Entry<T, T> entry : votes.entrySet()) {
+            if (alive.test(entry.getKey()) && alive.test(entry.getValue())) {
+                voteTally.merge(entry.getValue(), 1, Integer::sum);
+            }
+        }
+
+        int majorityThreshold = (livingPlayers / 2) + 1;
+        if (voteTally.isEmpty()) {
+            return new VoteResult<>(VoteOutcome.NO_VOTES, null, 0, majorityThreshold);
+        }
+
+        int maxVotes = Collections.max(voteTally.values());
+        T top = null;
+        int tied = 0;
+        for (Map.Entry<T, Integer> entry : voteTally.entrySet()) {
+            if (entry.getValue() == maxVotes) {
+                top = entry.getKey();
+                tied++;
+            }
+        }
+
+        if (tied > 1) {
+            return new VoteResult<>(VoteOutcome.TIE, null, maxVotes, majorityThreshold);
+        }
+        if (maxVotes >= majorityThreshold) {
+            return new VoteResult<>(VoteOutcome.EXECUTED, top, maxVotes, majorityThreshold);
+        }
+        return new VoteResult<>(VoteOutcome.NO_MAJORITY, null, maxVotes, majorityThreshold);
+    }
+
+    /**
+     * 마피아가 모두 죽으면 시민 승, 마피아 수가 시민팀 수 이상이면 마피아 승.
+     */
+    public static Winner winner(int mafiaAlive, int citizensAlive) {
+        if (mafiaAlive == 0) {
+            return Winner.CITIZENS;
+        }
+        if (mafiaAlive >= citizensAlive) {
+            return Winner.MAFIA;
+        }
+        return Winner.NONE;
+    }
+}
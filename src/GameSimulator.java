@@ -0,0 +1,341 @@
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 직업 밸런스 조정용 몬테카를로 시뮬레이터. 서버와 같은 GameRules 로 게임을 끝까지 진행하고
+ * 인원/마피아 수 구성별 승률을 출력한다. 게임 묶음을 fork-join 으로 나눠 모든 코어에서 돌린다.
+ *
+ * 실행: java GameSimulator [구성당 게임 수] [전략(random|bot|claim)] [시드]
+ */
+public class GameSimulator {
+
+    private static final int MIN_PLAYERS = 4;
+    private static final int MAX_PLAYERS = 10;
+    private static final int MAX_MAFIAS = 3;
+    // 한 작업이 직접 돌리는 게임 수. 이보다 많으면 반으로 나눠 fork 한다.
+    private static final int GAMES_PER_TASK = 20_000;
+    // 처형도 살해도 없이 끝나지 않는 판을 끊는 안전장치
+    private static final int MAX_ROUNDS = 100;
+
+    /**
+     * 플레이어 행동 전략. 대상이 없으면 -1 을 돌려준다.
+     */
+    public interface Strategy {
+        int mafiaTarget(Table t, int mafia);
+
+        int doctorTarget(Table t, int doctor);
+
+        int policeTarget(Table t, int police);
+
+        int vote(Table t, int voter);
+    }
+
+    /**
+     * 한 판의 상태. 전략은 이 객체를 통해 필요한 정보만 본다.
+     */
+    public static final class Table {
+        final String[] roles;
+        final boolean[] alive;
+        // 경찰 조사 결과: 0 모름, 1 마피아, 2 시민
+        final byte[] investigated;
+        // 경찰이 낮에 조사 결과를 공개했는지
+        boolean policeClaimed;
+        final SplittableRandom random;
+
+        Table(int players, SplittableRandom random) {
+            this.roles = new String[players];
+            this.alive = new boolean[players];
+            this.investigated = new byte[players];
+            this.random = random;
+        }
+
+        public int size() {
+            return roles.length;
+        }
+
+        public boolean isAlive(int p) {
+            return alive[p];
+        }
+
+        public boolean isMafia(int p) {
+            return GameRules.MAFIA.equals(roles[p]);
+        }
+
+        public String role(int p) {
+            return roles[p];
+        }
+
+        public boolean knownMafia(int p) {
+            return investigated[p] == 1;
+        }
+
+        public boolean investigated(int p) {
+            return investigated[p] != 0;
+        }
+
+        public boolean policeClaimed() {
+            return policeClaimed;
+        }
+
+        /**
+         * 조건에 맞는 생존자 중 무작위 한 명. 없으면 -1.
+         */
+        public int randomAlive(int exclude, boolean excludeMafia, boolean excludeInvestigated) {
+            int count = 0;
+            int chosen = -1;
+            for (int p = 0; p < roles.length; p++) {
+                if (!alive[p] || p == exclude) continue;
+                if (excludeMafia && isMafia(p)) continue;
+                if (excludeInvestigated && investigated[p] != 0) continue;
+                // 저수지 샘플링: 목록을 만들지 않고 균등하게 고른다.
+                if (random.nextInt(++count) == 0) chosen = p;
+            }
+            return chosen;
+        }
+    }
+
+    /**
+     * 모두 무작위로 행동한다. 마피아는 동료를 지목하거나 투표하지 않는다.
+     */
+    static final Strategy RANDOM = new Strategy() {
+        public int mafiaTarget(Table t, int mafia) { return t.randomAlive(mafia, true, false); }
+        public int doctorTarget(Table t, int doctor) { return t.randomAlive(-1, false, false); }
+        public int policeTarget(Table t, int police) { return t.randomAlive(police, false, true); }
+        public int vote(Table t, int voter) { return t.randomAlive(voter, t.isMafia(voter), false); }
+    };
+
+    /**
+     * BotPlayer 와 같은 행동: 경찰만 자기 조사 결과를 알고 그 대상에게 투표한다.
+     */
+    static final Strategy BOT = new Strategy() {
+        public int mafiaTarget(Table t, int mafia) { return RANDOM.mafiaTarget(t, mafia); }
+        public int doctorTarget(Table t, int doctor) { return RANDOM.doctorTarget(t, doctor); }
+        public int policeTarget(Table t, int police) { return RANDOM.policeTarget(t, police); }
+
+        public int vote(Table t, int voter) {
+            if (GameRules.POLICE.equals(t.role(voter))) {
+                int suspect = firstKnownMafia(t);
+                if (suspect >= 0) return suspect;
+            }
+            return RANDOM.vote(t, voter);
+        }
+    };
+
+    /**
+     * 경찰이 마피아를 찾으면 낮에 공개하고 시민팀이 모두 따라 투표한다.
+     * 공개한 경찰은 다음 밤 마피아의 표적이 된다.
+     */
+    static final Strategy CLAIM = new Strategy() {
+        public int mafiaTarget(Table t, int mafia) {
+            if (t.policeClaimed()) {
+                int police = find(t, GameRules.POLICE);
+                if (police >= 0) return police;
+            }
+            return RANDOM.mafiaTarget(t, mafia);
+        }
+
+        public int doctorTarget(Table t, int doctor) {
+            if (t.policeClaimed()) {
+                int police = find(t, GameRules.POLICE);
+                if (police >= 0) return police;
+            }
+            return RANDOM.doctorTarget(t, doctor);
+        }
+
+        public int policeTarget(Table t, int police) { return RANDOM.policeTarget(t, police); }
+
+        public int vote(Table t, int voter) {
+            if (!t.isMafia(voter) && find(t, GameRules.POLICE) >= 0) {
+                int suspect = firstKnownMafia(t);
+                if (suspect >= 0) {
+                    t.policeClaimed = true;
+                    return suspect;
+                }
+            }
+            return RANDOM.vote(t, voter);
+        }
+    };
+
+    private static final Map<String, Strategy> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("random", RANDOM);
+        STRATEGIES.put("bot", BOT);
+        STRATEGIES.put("claim", CLAIM);
+    }
+
+    private static int firstKnownMafia(Table t) {
+        for (int p = 0; p < t.size(); p++) {
+            if (t.isAlive(p) && t.knownMafia(p)) return p;
+        }
+        return -1;
+    }
+
+    private static int find(Table t, String role) {
+        for (int p = 0; p < t.size(); p++) {
+            if (t.isAlive(p) && role.equals(t.role(p))) return p;
+        }
+        return -1;
+    }
+
+    /**
+     * 한 판을 끝까지 진행한다. 서버와 같이 밤부터 시작한다.
+     */
+    static GameRules.Winner playGame(List<String> deck, Strategy strategy, SplittableRandom random) {
+        int n = deck.size();
+        Table t = new Table(n, random);
+        for (int i = 0; i < n; i++) {
+            t.roles[i] = deck.get(i);
+            t.alive[i] = true;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String tmp = t.roles[i];
+            t.roles[i] = t.roles[j];
+            t.roles[j] = tmp;
+        }
+
+        Map<Integer, Integer> votes = new HashMap<>();
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            // 밤: 서버처럼 마지막으로 지목한 마피아의 대상이 유효하다.
+            Integer kill = null;
+            Integer save = null;
+            for (int p = 0; p < n; p++) {
+                if (!t.alive[p]) continue;
+                switch (t.roles[p]) {
+                    case GameRules.MAFIA: {
+                        int target = strategy.mafiaTarget(t, p);
+                        if (target >= 0) kill = target;
+                        break;
+                    }
+                    case GameRules.DOCTOR: {
+                        int target = strategy.doctorTarget(t, p);
+                        if (target >= 0) save = target;
+                        break;
+                    }
+                    case GameRules.POLICE: {
+                        int target = strategy.policeTarget(t, p);
+                        if (target >= 0) t.investigated[target] = (byte) (t.isMafia(target) ? 1 : 2);
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+            Integer victim = GameRules.nightVictim(kill, save);
+            if (victim != null) {
+                t.alive[victim] = false;
+            }
+            GameRules.Winner w = winner(t);
+            if (w != GameRules.Winner.NONE) return w;
+
+            // 낮: 처형이 있었을 때만 승패를 확인한다(서버와 같음).
+            votes.clear();
+            int living = 0;
+            for (int p = 0; p < n; p++) {
+                if (!t.alive[p]) continue;
+                living++;
+                int target = strategy.vote(t, p);
+                if (target >= 0) votes.put(p, target);
+            }
+            GameRules.VoteResult<Integer> result = GameRules.tally(votes, p -> t.alive[p], living);
+            if (result.outcome == GameRules.VoteOutcome.EXECUTED) {
+                t.alive[result.target] = false;
+                w = winner(t);
+                if (w != GameRules.Winner.NONE) return w;
+            }
+        }
+        return GameRules.Winner.NONE;
+    }
+
+    private static GameRules.Winner winner(Table t) {
+        int mafiaAlive = 0;
+        int citizensAlive = 0;
+        for (int p = 0; p < t.size(); p++) {
+            if (!t.alive[p]) continue;
+            if (t.isMafia(p)) mafiaAlive++;
+            else citizensAlive++;
+        }
+        return GameRules.winner(mafiaAlive, citizensAlive);
+    }
+
+    /**
+     * 게임 범위를 반씩 나눠 돌리고 [마피아 승, 시민 승, 무승부] 를 합친다.
+     */
+    @SuppressWarnings("serial") // 직렬화하지 않는 ForkJoin 작업
+    static final class SimulationTask extends RecursiveTask<long[]> {
+        private final List<String> deck;
+        private final Strategy strategy;
+        private final long games;
+        private final SplittableRandom random;
+
+        SimulationTask(List<String> deck, Strategy strategy, long games, SplittableRandom random) {
+            this.deck = deck;
+            this.strategy = strategy;
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (games <= GAMES_PER_TASK) {
+                long[] result = new long[3];
+                for (long i = 0; i < games; i++) {
+                    switch (playGame(deck, strategy, random)) {
+                        case MAFIA: result[0]++; break;
+                        case CITIZENS: result[1]++; break;
+                        default: result[2]++; break;
+                    }
+                }
+                return result;
+            }
+
+            long half = games / 2;
+            SimulationTask left = new SimulationTask(deck, strategy, half, random.split());
+            SimulationTask right = new SimulationTask(deck, strategy, games - half, random);
+            left.fork();
+            long[] r = right.compute();
+            long[] l = left.join();
+            for (int i = 0; i < r.length; i++) r[i] += l[i];
+            return r;
+        }
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        String strategyName = args.length > 1 ? args[1] : "bot";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        Strategy strategy = STRATEGIES.get(strategyName);
+        if (strategy == null) {
+            System.out.println("사용법: java GameSimulator [구성당 게임 수] [" + String.join("|", STRATEGIES.keySet()) + "] [시드]");
+            return;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("전략 " + strategyName + ", 구성당 " + games + "판, 시드 " + seed + ", 병렬도 " + pool.getParallelism());
+        System.out.println("인원  마피아  마피아 승률  시민 승률  무승부");
+
+        SplittableRandom root = new SplittableRandom(seed);
+        long totalGames = 0;
+        long start = System.nanoTime();
+        for (int players = MIN_PLAYERS; players <= MAX_PLAYERS; players++) {
+            for (int mafias = 1; mafias <= MAX_MAFIAS && mafias * 2 < players; mafias++) {
+                List<String> deck = GameRules.roleDeck(players, mafias);
+                long[] r = pool.invoke(new SimulationTask(deck, strategy, games, root.split()));
+                totalGames += games;
+                // 현재 서버 구성에는 * 표시
+                String mark = mafias == GameRules.mafiaCount(players) ? "*" : " ";
+                System.out.printf("%4d  %4d%s   %9.2f%%  %8.2f%%  %5.2f%%%n", players, mafias, mark,
+                        100.0 * r[0] / games, 100.0 * r[1] / games, 100.0 * r[2] / games);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("총 %d판, %.1f초 (%.0f판/초)%n", totalGames, seconds, totalGames / seconds);
+    }
+}
@@ -0,0 +1,434 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 클라이언트 접속을 받아 방 ID 에 따라 백엔드 게임 서버(Server --headless)로 중계하는 게이트웨이.
+ *
+ * 실행: java Gateway <클라이언트 포트> <관리 포트> [host:port ...]
+ * 관리 포트에 "ADD host:port" / "REMOVE host:port" / "LIST" 를 보내 재시작 없이 노드를 바꿀 수 있다.
+ * 관리 포트는 인증이 없으므로 기본으로 루프백에만 연다. 다른 호스트의 노드가 직접 등록해야 하면
+ * -Dmafia.gateway.admin.bind=<주소> 로 바꾸되, 그 주소는 방화벽으로 노드들만 닿게 막아 둔다.
+ * 클라이언트가 첫 줄로 "ROOM:<id>" 를 보내면 그 방으로, 아니면 기본 방으로 보낸다. 방 ID 는 영문/숫자/_/- 32자 이하만 받는다.
+ *
+ * 노드 연결이 실패하면 잠시 뒤 한 번 더 시도하고, 그래도 안 되면 SUSPECT_MILLIS 동안만 의심 노드로 두어
+ * 새 배정에서 뺀다. 그 노드에 있던 방은 다른 노드로 옮기지만 노드 자체는 링에 남아 시간이 지나면 다시 쓴다.
+ */
+public class Gateway {
+
+    private static final String DEFAULT_ROOM = "default";
+    private static final int VIRTUAL_NODES = 64;
+    private static final int MAX_FIRST_LINE = 1024;
+    private static final Pattern ROOM_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    // 배정표가 기억하는 방 수 한도
+    private static final int MAX_ROOMS = 50_000;
+    private static final long CONNECT_RETRY_MILLIS = 200;
+    private static final long SUSPECT_MILLIS = 10_000;
+    private static final String ADMIN_BIND = System.getProperty("mafia.gateway.admin.bind", "127.0.0.1");
+
+    private final HashRing ring = new HashRing();
+    private final RoomDirectory directory;
+    // 연결이 연달아 실패한 노드 -> 다시 배정해도 되는 시각 (System.currentTimeMillis)
+    private final Map<String, Long> suspectUntil = new ConcurrentHashMap<>();
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    public Gateway(Path directoryFile) {
+        this.directory = new RoomDirectory(directoryFile);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("사용법: java Gateway <클라이언트 포트> <관리 포트> [host:port ...]");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        int adminPort = Integer.parseInt(args[1]);
+
+        Gateway gateway = new Gateway(Paths.get("rooms.dir"));
+        for (int i = 2; i < args.length; i++) {
+            gateway.ring.add(args[i]);
+        }
+        gateway.startAdmin(adminPort);
+        gateway.serve(port);
+    }
+
+    private void serve(int port) throws IOException {
+        System.out.println("게이트웨이가 시작되었습니다. (Port: " + port + ", 노드 " + ring.nodes().size() + "개)");
+        try (ServerSocket listener = new ServerSocket(port)) {
+            while (true) {
+                Socket client = listener.accept();
+                pool.execute(() -> route(client));
+            }
+        }
+    }
+
+    private void startAdmin(int adminPort) {
+        Thread t = new Thread(() -> {
+            try (ServerSocket admin = new ServerSocket(adminPort, 50, InetAddress.getByName(ADMIN_BIND))) {
+                System.out.println("관리 포트: " + admin.getLocalSocketAddress());
+                while (true) {
+                    try (Socket s = admin.accept();
+                         BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                         PrintWriter out = new PrintWriter(s.getOutputStream(), true)) {
+                        String line;
+                        while ((line = in.readLine()) != null) {
+                            out.println(handleAdmin(line.trim()));
+                        }
+                    } catch (IOException e) {
+                        System.err.println("관리 연결 오류: " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("관리 포트 오류: " + e.getMessage());
+            }
+        }, "gateway-admin");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private String handleAdmin(String command) {
+        if (command.startsWith("ADD ")) {
+            String node = command.substring(4).trim();
+            ring.add(node);
+            System.out.println("노드 추가: " + node);
+            return "OK";
+        } else if (command.startsWith("REMOVE ")) {
+            String node = command.substring(7).trim();
+            ring.remove(node);
+            directory.evictNode(node);
+            suspectUntil.remove(node);
+            System.out.println("노드 제거: " + node);
+            return "OK";
+        } else if (command.equals("LIST")) {
+            return "NODES:" + String.join(",", ring.nodes());
+        }
+        return "ERROR:알 수 없는 명령";
+    }
+
+    private void route(Socket client) {
+        try {
+            InputStream clientIn = client.getInputStream();
+            byte[] firstLine = readFirstLine(clientIn);
+            if (firstLine == null) {
+                client.close();
+                return;
+            }
+
+            String first = new String(firstLine, StandardCharsets.UTF_8).trim();
+            String roomId = DEFAULT_ROOM;
+            boolean forwardFirst = true;
+            if (first.startsWith("ROOM:")) {
+                roomId = first.substring(5).trim();
+                forwardFirst = false;
+                if (!ROOM_ID.matcher(roomId).matches()) {
+                    sendAndClose(client, "SYSTEM:잘못된 방 ID 입니다. (영문, 숫자, _, - 로 32자 이하)");
+                    return;
+                }
+            }
+
+            String node = directory.lookup(roomId, ring, this::healthy);
+            if (node == null) {
+                sendAndClose(client, "SYSTEM:사용 가능한 게임 서버가 없습니다.");
+                return;
+            }
+
+            Socket backend = connectWithRetry(node);
+            if (backend == null) {
+                // 잠깐의 실패로 노드를 영구히 빼지 않는다. 의심 기간 동안만 새 배정에서 빼고 이 방은 다른 노드로 옮긴다.
+                suspectUntil.put(node, System.currentTimeMillis() + SUSPECT_MILLIS);
+                System.err.println("노드 연결 실패(" + node + "), " + SUSPECT_MILLIS / 1000 + "초 동안 배정에서 뺍니다.");
+                node = directory.lookup(roomId, ring, this::healthy);
+                if (node == null) {
+                    sendAndClose(client, "SYSTEM:사용 가능한 게임 서버가 없습니다.");
+                    return;
+                }
+                backend = connect(node);
+            }
+
+            OutputStream backendOut = backend.getOutputStream();
+            if (forwardFirst) {
+                backendOut.write(firstLine);
+                backendOut.write('\n');
+                backendOut.flush();
+            }
+
+            Socket b = backend;
+            pool.execute(() -> pump(b, client));
+            pump(client, backend);
+        } catch (IOException e) {
+            try { client.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private boolean healthy(String node) {
+        Long until = suspectUntil.get(node);
+        if (until == null) {
+            return true;
+        }
+        if (System.currentTimeMillis() < until) {
+            return false;
+        }
+        suspectUntil.remove(node, until);
+        return true;
+    }
+
+    // 한 번 실패하면 잠시 뒤 다시 시도한다. 두 번 다 실패하면 null.
+    private static Socket connectWithRetry(String node) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                return connect(node);
+            } catch (IOException e) {
+                System.err.println("노드 연결 실패(" + node + ", " + (attempt + 1) + "회): " + e.getMessage());
+            }
+            try {
+                Thread.sleep(CONNECT_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Socket connect(String node) throws IOException {
+        int colon = node.lastIndexOf(':');
+        Socket s = new Socket(node.substring(0, colon), Integer.parseInt(node.substring(colon + 1)));
+        s.setTcpNoDelay(true);
+        return s;
+    }
+
+    // 첫 줄만 바이트 단위로 읽어 이후 데이터가 버퍼에 남지 않게 한다.
+    private static byte[] readFirstLine(InputStream in) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') return buf.toByteArray();
+            if (c != '\r' && buf.size() < MAX_FIRST_LINE) buf.write(c);
+        }
+        return buf.size() > 0 ? buf.toByteArray() : null;
+    }
+
+    private static void pump(Socket from, Socket to) {
+        byte[] buf = new byte[8192];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+                out.flush();
+            }
+        } catch (IOException ignored) {
+        } finally {
+            try { from.close(); } catch (IOException ignored) {}
+            try { to.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private static void sendAndClose(Socket client, String message) throws IOException {
+        OutputStream out = client.getOutputStream();
+        out.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        client.close();
+    }
+
+    /**
+     * 가상 노드를 둔 consistent hash ring. 노드 추가 시 일부 키만 새 노드로 옮겨진다.
+     */
+    static class HashRing {
+        private final NavigableMap<Long, String> ring = new ConcurrentSkipListMap<>();
+        private final Map<String, Boolean> members = new ConcurrentHashMap<>();
+
+        void add(String node) {
+            if (members.putIfAbsent(node, Boolean.TRUE) != null) return;
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+
+        void remove(String node) {
+            if (members.remove(node) == null) return;
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.remove(hash(node + "#" + i), node);
+            }
+        }
+
+        /**
+         * key 다음 위치부터 시계 방향으로 usable 한 첫 노드. 없으면 null.
+         */
+        String nodeFor(String key, Predicate<String> usable) {
+            long h = hash(key);
+            for (String node : ring.tailMap(h, true).values()) {
+                if (usable.test(node)) return node;
+            }
+            for (String node : ring.headMap(h, false).values()) {
+                if (usable.test(node)) return node;
+            }
+            return null;
+        }
+
+        List<String> nodes() {
+            return List.copyOf(members.keySet());
+        }
+
+        static long hash(String key) {
+            try {
+                byte[] d = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+                long h = 0;
+                for (int i = 0; i < 8; i++) {
+                    h = (h << 8) | (d[i] & 0xff);
+                }
+                return h;
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 방 ID -> 노드 배정표. 한 번 배정된 방은 노드가 추가되어도 옮기지 않는다(진행 중인 게임 보호).
+     * 같은 호스트의 게이트웨이끼리 공유할 수 있도록 파일에 추가 기록한다. 모르는 방이 오면 파일이 바뀌었을 때만
+     * 새로 붙은 부분을 읽는다(다른 게이트웨이가 압축해 파일이 통째로 바뀌었으면 처음부터 읽는다).
+     *
+     * 기억하는 방이 MAX_ROOMS 에 닿으면, 지금 링이 그대로 다시 계산해 주는 배정(기록할 필요가 없는 것)을 지우고
+     * 파일을 다시 쓴다. 그래도 가득 차 있으면 새 방은 기록하지 않고 링이 정한 노드로만 보낸다.
+     */
+    static class RoomDirectory {
+        private final Path file;
+        private final Map<String, String> rooms = new ConcurrentHashMap<>();
+        // 여기까지 읽은 파일과 바이트 수 (this 로 보호)
+        private Object loadedFileKey = null;
+        private long loadedBytes = 0;
+
+        RoomDirectory(Path file) {
+            this.file = file;
+            reload();
+        }
+
+        String lookup(String roomId, HashRing ring, Predicate<String> usable) {
+            String node = rooms.get(roomId);
+            if (node == null) {
+                reload();
+                node = rooms.get(roomId);
+            }
+            if (node != null && ring.nodes().contains(node) && usable.test(node)) {
+                return node;
+            }
+
+            String assigned = ring.nodeFor(roomId, usable);
+            if (assigned == null) return null;
+            record(roomId, assigned, ring);
+            return assigned;
+        }
+
+        void evictNode(String node) {
+            rooms.values().removeIf(node::equals);
+        }
+
+        private synchronized void record(String roomId, String node, HashRing ring) {
+            if (!rooms.containsKey(roomId) && rooms.size() >= MAX_ROOMS) {
+                compact(ring);
+                if (rooms.size() >= MAX_ROOMS) {
+                    return;
+                }
+            }
+            rooms.put(roomId, node);
+            append(roomId, node);
+        }
+
+        private synchronized void reload() {
+            try {
+                if (!Files.exists(file)) return;
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                Object fileKey = attrs.fileKey() != null ? attrs.fileKey() : attrs.creationTime();
+                if (!fileKey.equals(loadedFileKey) || attrs.size() < loadedBytes) {
+                    loadedFileKey = fileKey;
+                    loadedBytes = 0;
+                }
+                if (attrs.size() == loadedBytes) return;
+
+                byte[] tail;
+                try (SeekableByteChannel ch = Files.newByteChannel(file)) {
+                    ch.position(loadedBytes);
+                    ByteBuffer buf = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8, attrs.size() - loadedBytes));
+                    while (buf.hasRemaining() && ch.read(buf) > 0) { }
+                    tail = Arrays.copyOf(buf.array(), buf.position());
+                }
+                // 다른 게이트웨이가 쓰는 중인 마지막 줄은 다음에 읽는다.
+                int end = tail.length;
+                while (end > 0 && tail[end - 1] != '\n') end--;
+                for (String line : new String(tail, 0, end, StandardCharsets.UTF_8).split("\n")) {
+                    int tab = line.indexOf('\t');
+                    if (tab > 0 && ROOM_ID.matcher(line.substring(0, tab)).matches()
+                            && (rooms.size() < MAX_ROOMS || rooms.containsKey(line.substring(0, tab)))) {
+                        rooms.put(line.substring(0, tab), line.substring(tab + 1).trim());
+                    }
+                }
+                loadedBytes += end;
+            } catch (IOException e) {
+                System.err.println("방 배정표 로드 실패: " + e.getMessage());
+            }
+        }
+
+        private synchronized void append(String roomId, String node) {
+            try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                w.write(roomId + "\t" + node + "\n");
+            } catch (IOException e) {
+                System.err.println("방 배정표 기록 실패: " + e.getMessage());
+            }
+        }
+
+        /**
+         * 링이 다시 계산해도 같은 노드가 나오는 배정을 지우고, 남은 배정만으로 파일을 원자적으로 다시 쓴다.
+         */
+        private synchronized void compact(HashRing ring) {
+            reload();
+            int before = rooms.size();
+            rooms.entrySet().removeIf(e -> e.getValue().equals(ring.nodeFor(e.getKey(), n -> true)));
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, String> e : rooms.entrySet()) {
+                sb.append(e.getKey()).append('\t').append(e.getValue()).append('\n');
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                // 방금 쓴 파일은 이미 메모리와 같으므로 다음 reload 는 새로 붙는 부분만 읽는다.
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                loadedFileKey = attrs.fileKey() != null ? attrs.fileKey() : attrs.creationTime();
+                loadedBytes = attrs.size();
+            } catch (IOException e) {
+                System.err.println("방 배정표 압축 실패: " + e.getMessage());
+            }
+            System.out.println("방 배정표 압축: " + before + " -> " + rooms.size() + "개");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 블로킹 소켓 채널에서 UTF-8 줄(또는 바이트)을 읽는다. BufferedReader + InputStreamReader 는 연결마다
+ * 8K 문자 버퍼와 8K 바이트 디코더 버퍼(약 24KB)를 붙들고, 소켓 InputStream 은 힙 배열로 읽으면서 스레드마다
+ * JDK 임시 direct 버퍼 캐시(약 4KB + 읽기 크기)를 만든다.
+ * 이 리더는 1바이트짜리 direct 버퍼로 다음 데이터를 기다리고, 데이터가 오면 공용 풀에서 direct 버퍼를 빌려
+ * 이미 도착한 만큼만 더 읽은 뒤 다 소비하면 바로 돌려준다. 따라서 대기 중인 연결은 버퍼를 갖지 않는다.
+ * 줄 중간에서 데이터가 끊기면 남은 조각만 딱 맞는 크기로 따로 보관한다.
+ *
+ * maxChars 를 넘는 줄은 잘라서 돌려주고 truncated() 가 참이 된다.
+ * InputStream 으로도 쓸 수 있어 WebSocket 프레임 해석도 같은 버퍼 경로를 탄다. close 는 채널을 닫지 않는다.
+ */
+final class LineReader extends InputStream {
+
+    private final SocketChannel channel;
+    // 도착한 바이트 수(FIONREAD)를 물어볼 때만 쓴다. 이 스트림으로 읽지는 않는다.
+    private final InputStream arrivals;
+    private final BufferPool pool;
+    private final int maxChars;
+    // 한 글자가 UTF-8 로 4바이트를 넘지 않으므로 이만큼 모으면 maxChars 는 항상 채운다.
+    private final int maxBytes;
+    private final ByteBuffer single = ByteBuffer.allocateDirect(1);
+
+    // 읽지 않은 바이트가 남아 있는 동안만 빌려 둔다 (읽기 모드).
+    private ByteBuffer buffer;
+    // 아직 줄바꿈을 못 만난 앞부분 (드묾)
+    private byte[] partial;
+    private int partialLength;
+    private boolean partialTruncated;
+    private boolean truncated;
+
+    LineReader(SocketChannel channel, BufferPool pool, int maxChars) throws IOException {
+        this.channel = channel;
+        this.arrivals = channel.socket().getInputStream();
+        this.pool = pool;
+        this.maxChars = maxChars;
+        this.maxBytes = maxChars * 4;
+    }
+
+    /**
+     * 다음 한 줄 (줄바꿈과 끝의 '\r' 제외). 상대가 닫았고 남은 내용이 없으면 null.
+     */
+    String readLine() throws IOException {
+        while (true) {
+            if (!fill()) {
+                if (partialLength == 0) {
+                    return null;
+                }
+                return finishPartial();
+            }
+            int start = buffer.position();
+            int limit = buffer.limit();
+            int newline = start;
+            while (newline < limit && buffer.get(newline) != '\n') newline++;
+
+            if (newline < limit) {
+                String line;
+                if (partialLength == 0) {
+                    byte[] bytes = new byte[newline - start];
+                    buffer.get(start, bytes);
+                    line = decode(bytes, bytes.length, false);
+                } else {
+                    appendPartial(start, newline - start);
+                    line = finishPartial();
+                }
+                buffer.position(newline + 1);
+                consumed();
+                return line;
+            }
+            appendPartial(start, limit - start);
+            buffer.position(limit);
+            consumed();
+        }
+    }
+
+    /**
+     * 마지막으로 돌려준 줄이 maxChars 에서 잘렸는지.
+     */
+    boolean truncated() {
+        return truncated;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        int b = buffer.get() & 0xFF;
+        consumed();
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        consumed();
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (buffer != null ? buffer.remaining() : 0) + arrivals.available();
+    }
+
+    /**
+     * 연결이 끝날 때 빌린 버퍼를 돌려준다.
+     */
+    @Override
+    public void close() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+        partial = null;
+        partialLength = 0;
+    }
+
+    // 읽을 바이트가 하나 이상 있게 한다. 기다리는 동안은 1바이트 버퍼만 쓴다. 끝이면 false.
+    private boolean fill() throws IOException {
+        if (buffer != null) {
+            return true;
+        }
+        single.clear();
+        int n;
+        do {
+            n = channel.read(single);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        buffer = pool.acquire();
+        buffer.put(single.flip());
+        int more = Math.min(arrivals.available(), buffer.capacity() - 1);
+        if (more > 0) {
+            buffer.limit(1 + more);
+            channel.read(buffer);
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private void consumed() {
+        if (!buffer.hasRemaining()) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void appendPartial(int index, int length) {
+        int keep = Math.min(length, maxBytes - partialLength);
+        if (keep < length) {
+            partialTruncated = true;
+        }
+        if (keep <= 0) {
+            return;
+        }
+        if (partial == null || partial.length < partialLength + keep) {
+            partial = Arrays.copyOf(partial == null ? new byte[0] : partial, partialLength + keep);
+        }
+        buffer.get(index, partial, partialLength, keep);
+        partialLength += keep;
+    }
+
+    private String finishPartial() {
+        String line = decode(partial, partialLength, partialTruncated);
+        partial = null;
+        partialLength = 0;
+        partialTruncated = false;
+        return line;
+    }
+
+    private String decode(byte[] bytes, int length, boolean cut) {
+        if (length > 0 && bytes[length - 1] == '\r' && !cut) {
+            length--;
+        }
+        if (length > maxBytes) {
+            length = maxBytes;
+            cut = true;
+        }
+        String line = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        if (line.length() > maxChars) {
+            line = line.substring(0, maxChars);
+            cut = true;
+        }
+        truncated = cut;
+        return line;
+    }
+}
@@ -0,0 +1,199 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * 매칭 대기열. 레이팅 구간별로 나눈 lock-free 큐에 플레이어를 넣고,
+ * 스케줄러 스레드가 주기적으로 비슷한 레이팅끼리 방 크기만큼 묶어 onMatch 로 넘긴다.
+ * 한 방의 최고/최저 레이팅 차이는 MATCH_SPREAD 이하이고, 그 방에서 가장 오래 기다린 사람의 대기 시간만큼 넓어진다.
+ */
+public class Matchmaker<T> {
+
+    private static final int RATING_BUCKET_WIDTH = 100;
+    private static final int BUCKET_COUNT = 32;
+    // 한 방 안의 레이팅 차이 한도와, 대기 1초마다 넓히는 폭
+    private static final int MATCH_SPREAD = 200;
+    private static final int SPREAD_PER_WAIT_SECOND = 10;
+
+    private final int minRoomSize;
+    private final int maxRoomSize;
+    private final long maxWaitMillis;
+    private final ToIntFunction<T> rating;
+    private final Consumer<List<T>> onMatch;
+
+    // 레이팅 구간별 샤드. enqueue/cancel 이 하나의 모니터를 두고 경쟁하지 않는다.
+    private final List<Queue<Entry<T>>> buckets;
+    // 현재 대기 중인 플레이어 -> 엔트리 (취소 시 엔트리만 무효화하고 큐에서는 나중에 버린다)
+    private final Map<T, Entry<T>> waiting = new ConcurrentHashMap<>();
+    // onMatch 가 도는 동안 넘긴 플레이어 -> 처음 대기를 시작한 시각. requeue 가 대기 시간을 이어 가는 데 쓴다.
+    private volatile Map<T, Long> handingOff = null;
+
+    // 대기 시각과 매칭 주기에 쓰는 시계. start 에서 바꿀 수 있다.
+    private volatile GameClock clock = new GameClock.WallClock("matchmaker", 1);
+
+    private static class Entry<T> {
+        final T player;
+        final long enqueuedAt;
+        // 등록 시점의 레이팅. 정렬 중에 값이 바뀌지 않도록 한 번만 읽는다.
+        final int rating;
+        volatile boolean cancelled = false;
+
+        Entry(T player, long enqueuedAt, int rating) {
+            this.player = player;
+            this.enqueuedAt = enqueuedAt;
+            this.rating = rating;
+        }
+    }
+
+    public Matchmaker(int minRoomSize, int maxRoomSize, long maxWaitMillis, ToIntFunction<T> rating, Consumer<List<T>> onMatch) {
+        this.minRoomSize = minRoomSize;
+        this.maxRoomSize = maxRoomSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.rating = rating;
+        this.onMatch = onMatch;
+        this.buckets = new ArrayList<>(BUCKET_COUNT);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public void start(long intervalMillis) {
+        start(clock, intervalMillis);
+    }
+
+    public void start(GameClock clock, long intervalMillis) {
+        this.clock = clock;
+        clock.scheduleAtFixedRate(this::formMatches, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 대기열에 추가. 이미 대기 중이면 false.
+     */
+    public boolean enqueue(T player) {
+        return enqueue(player, clock.millis());
+    }
+
+    /**
+     * onMatch 안에서 게임을 시작하지 못해 돌려보낼 때 쓴다. 이번 매칭 전부터 기다린 시간을 그대로 이어 가므로
+     * 레이팅 차이 한도와 작은 방 시작 조건이 처음부터 다시 시작되지 않는다.
+     */
+    public boolean requeue(T player) {
+        Map<T, Long> matched = handingOff;
+        Long since = matched != null ? matched.get(player) : null;
+        return enqueue(player, since != null ? since : clock.millis());
+    }
+
+    private boolean enqueue(T player, long enqueuedAt) {
+        Entry<T> entry = new Entry<>(player, enqueuedAt, rating.applyAsInt(player));
+        if (waiting.putIfAbsent(player, entry) != null) {
+            return false;
+        }
+        buckets.get(bucketOf(entry)).offer(entry);
+        return true;
+    }
+
+    /**
+     * 대기열에서 제거. 대기 중이 아니었으면 false.
+     */
+    public boolean cancel(T player) {
+        Entry<T> entry = waiting.remove(player);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    public boolean isWaiting(T player) {
+        return waiting.containsKey(player);
+    }
+
+    public int waitingCount() {
+        return waiting.size();
+    }
+
+    private static int bucketOf(Entry<?> entry) {
+        int b = Math.max(0, entry.rating) / RATING_BUCKET_WIDTH;
+        return Math.min(b, BUCKET_COUNT - 1);
+    }
+
+    // 시계의 예약 작업으로만 호출된다.
+    private void formMatches() {
+        List<Entry<T>> candidates = new ArrayList<>();
+        for (Queue<Entry<T>> bucket : buckets) {
+            Entry<T> e;
+            while ((e = bucket.poll()) != null) {
+                if (!e.cancelled) candidates.add(e);
+            }
+        }
+        // 구간 순서대로 꺼내 대략 정렬되어 있지만, 구간 안에서는 순서가 없으므로 레이팅으로 정렬한다.
+        candidates.sort(Comparator.comparingInt(e -> e.rating));
+
+        long now = clock.millis();
+        List<Entry<T>> leftover = new ArrayList<>();
+        int index = 0;
+        while (index < candidates.size()) {
+            // index 부터 레이팅 차이 한도 안에서 최대 인원까지 모은다.
+            int end = index;
+            long oldest = Long.MAX_VALUE;
+            while (end < candidates.size() && end - index < maxRoomSize) {
+                Entry<T> next = candidates.get(end);
+                long groupOldest = Math.min(oldest, next.enqueuedAt);
+                if (next.rating - candidates.get(index).rating > allowedSpread(now - groupOldest)) {
+                    break;
+                }
+                oldest = groupOldest;
+                end++;
+            }
+            int size = end - index;
+            // 꽉 찬 방, 또는 최소 인원 이상이고 가장 오래 기다린 사람이 한도를 넘긴 작은 방
+            if (size == maxRoomSize || (size >= minRoomSize && now - oldest >= maxWaitMillis)) {
+                emit(candidates.subList(index, end));
+                index = end;
+            } else {
+                leftover.add(candidates.get(index));
+                index++;
+            }
+        }
+
+        for (Entry<T> e : leftover) {
+            if (!e.cancelled) buckets.get(bucketOf(e)).offer(e);
+        }
+    }
+
+    private static long allowedSpread(long waitedMillis) {
+        return MATCH_SPREAD + SPREAD_PER_WAIT_SECOND * (waitedMillis / 1000);
+    }
+
+    private void emit(List<Entry<T>> group) {
+        List<T> players = new ArrayList<>(group.size());
+        Map<T, Long> since = new HashMap<>();
+        for (Entry<T> e : group) {
+            // cancel 과 경쟁할 수 있으므로 waiting 에서 실제로 뺀 엔트리만 매칭에 포함
+            if (waiting.remove(e.player, e)) {
+                players.add(e.player);
+                since.put(e.player, e.enqueuedAt);
+            }
+        }
+        if (players.size() < minRoomSize) {
+            for (T p : players) enqueue(p, since.get(p));
+            return;
+        }
+        handingOff = since;
+        try {
+            onMatch.accept(players);
+        } catch (Exception ex) {
+            System.err.println("매칭 처리 중 오류: " + ex.getMessage());
+        } finally {
+            handingOff = null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 한 번만 UTF-8 로 인코딩된 송신 메시지("메시지\n").
+ * 여러 수신자가 같은 direct 버퍼를 공유하며, 각자 duplicate() 뷰로 읽어 쓴다.
+ * 참조 카운트가 0 이 되면 버퍼를 크기별 풀로 돌려준다.
+ */
+public final class OutboundFrame {
+
+    private static final int MIN_POOLED = 256;
+    private static final int MAX_POOLED = 16 * 1024;
+    private static final int POOL_LIMIT_PER_CLASS = 256;
+
+    // 크기 등급(256, 512, ... 16K)별 버퍼 풀
+    private static final List<Queue<ByteBuffer>> pools = new ArrayList<>();
+    private static final AtomicInteger[] poolSizes = new AtomicInteger[Integer.numberOfTrailingZeros(MAX_POOLED / MIN_POOLED) + 1];
+
+    static {
+        for (int i = 0; i < poolSizes.length; i++) {
+            pools.add(new ConcurrentLinkedQueue<>());
+            poolSizes[i] = new AtomicInteger();
+        }
+    }
+
+    private final String text;
+    private final ByteBuffer buffer;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    private OutboundFrame(String text, ByteBuffer buffer) {
+        this.text = text;
+        this.buffer = buffer;
+    }
+
+    /**
+     * 메시지를 인코딩해 프레임을 만든다. 생성한 쪽이 참조 1개를 가진다.
+     */
+    public static OutboundFrame of(String message) {
+        byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = acquire(bytes.length);
+        buf.put(bytes).flip();
+        return new OutboundFrame(message, buf);
+    }
+
+    public OutboundFrame retain() {
+        refCount.incrementAndGet();
+        return this;
+    }
+
+    public void release() {
+        if (refCount.decrementAndGet() == 0) {
+            recycle(buffer);
+        }
+    }
+
+    /**
+     * 수신자별 읽기 위치를 갖는 뷰. 내용은 복사하지 않는다.
+     */
+    public ByteBuffer view() {
+        return buffer.duplicate();
+    }
+
+    /**
+     * 인코딩 전 원문. 소켓 없는 수신자(봇)가 사용한다.
+     */
+    public String text() {
+        return text;
+    }
+
+    public int length() {
+        return buffer.remaining();
+    }
+
+    private static int sizeClass(int length) {
+        if (length > MAX_POOLED) return -1;
+        int size = Math.max(MIN_POOLED, Integer.highestOneBit(length - 1) << 1);
+        return Integer.numberOfTrailingZeros(size / MIN_POOLED);
+    }
+
+    private static ByteBuffer acquire(int length) {
+        int cls = sizeClass(length);
+        if (cls < 0) {
+            return ByteBuffer.allocateDirect(length);
+        }
+        ByteBuffer buf = pools.get(cls).poll();
+        if (buf != null) {
+            poolSizes[cls].decrementAndGet();
+            buf.clear();
+            return buf;
+        }
+        return ByteBuffer.allocateDirect(MIN_POOLED << cls);
+    }
+
+    private static void recycle(ByteBuffer buf) {
+        if (buf.capacity() > MAX_POOLED) return;
+        int cls = Integer.numberOfTrailingZeros(buf.capacity() / MIN_POOLED);
+        if (poolSizes[cls].incrementAndGet() <= POOL_LIMIT_PER_CLASS) {
+            pools.get(cls).offer(buf);
+        } else {
+            poolSizes[cls].decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플레이어 프로필(닉네임, 게임 수, 역할별 승리 수)을 파일에 저장하는 내장 저장소.
+ * 조회/갱신은 메모리 캐시에서만 일어나고, 파일 쓰기는 별도 스레드가 모아서 처리한다(write-behind).
+ */
+public class PlayerStore {
+
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+
+    private final Path dataFile;
+    private final Map<String, PlayerProfile> cache = new ConcurrentHashMap<>();
+    private final Map<String, PlayerProfile> dirty = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "player-store-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 로그 파일에 기록된 줄 수 (압축 시점 판단용, 생성자의 로드 이후에는 writer 스레드에서만 접근)
+    private long logLines = 0;
+
+    public static class PlayerProfile {
+        public final String nickname;
+        public int gamesPlayed;
+        public int winsMafia;
+        public int winsCitizen;
+        public int winsPolice;
+        public int winsDoctor;
+
+        PlayerProfile(String nickname) {
+            this.nickname = nickname;
+        }
+
+        public synchronized int totalWins() {
+            return winsMafia + winsCitizen + winsPolice + winsDoctor;
+        }
+
+        /**
+         * 매칭용 간이 레이팅. 승리 +30, 패배 -15, 기본 1000.
+         */
+        public synchronized int rating() {
+            int wins = winsMafia + winsCitizen + winsPolice + winsDoctor;
+            return Math.max(0, 1000 + 30 * wins - 15 * (gamesPlayed - wins));
+        }
+
+        synchronized String toRecord() {
+            return nickname + "\t" + gamesPlayed + "\t" + winsMafia + "\t" + winsCitizen + "\t" + winsPolice + "\t" + winsDoctor;
+        }
+
+        static PlayerProfile fromRecord(String line) {
+            String[] parts = line.split("\t");
+            if (parts.length != 6) return null;
+            try {
+                PlayerProfile p = new PlayerProfile(parts[0]);
+                p.gamesPlayed = Integer.parseInt(parts[1]);
+                p.winsMafia = Integer.parseInt(parts[2]);
+                p.winsCitizen = Integer.parseInt(parts[3]);
+                p.winsPolice = Integer.parseInt(parts[4]);
+                p.winsDoctor = Integer.parseInt(parts[5]);
+                return p;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    public PlayerStore(String fileName) {
+        this.dataFile = Paths.get(fileName);
+        // 로드가 끝나기 전에 들어온 갱신이 저장된 전적을 1판짜리 새 프로필로 덮어쓰지 않도록,
+        // 그리고 매칭이 0 전적 레이팅을 보지 않도록 로드는 생성자에서 끝낸다.
+        load();
+        writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushNow));
+    }
+
+    /**
+     * 닉네임으로 프로필 조회. 없으면 새로 만든다. (파일 I/O 없음)
+     */
+    public PlayerProfile getOrCreate(String nickname) {
+        String key = sanitize(nickname);
+        return cache.computeIfAbsent(key, PlayerProfile::new);
+    }
+
+    /**
+     * 게임 종료 시 전적 갱신. 실제 파일 기록은 writer 스레드가 나중에 처리한다.
+     */
+    public void recordGame(String nickname, String role, boolean won) {
+        PlayerProfile p = getOrCreate(nickname);
+        synchronized (p) {
+            p.gamesPlayed++;
+            if (won) {
+                switch (role) {
+                    case "MAFIA": p.winsMafia++; break;
+                    case "POLICE": p.winsPolice++; break;
+                    case "DOCTOR": p.winsDoctor++; break;
+                    default: p.winsCitizen++; break;
+                }
+            }
+        }
+        dirty.put(p.nickname, p);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 로그가 살아있는 레코드 수보다 많이 커지면 최신 값만 남겨 다시 쓴다.
+     */
+    public void compact() {
+        writer.execute(this::compactNow);
+    }
+
+    private void load() {
+        if (!Files.exists(dataFile)) return;
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(dataFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                PlayerProfile p = PlayerProfile.fromRecord(line);
+                if (p == null) continue;
+                lines++;
+                cache.put(p.nickname, p);
+            }
+        } catch (IOException e) {
+            System.err.println("플레이어 저장소 로드 실패: " + e.getMessage());
+        }
+        logLines = lines;
+        System.out.println("플레이어 프로필 " + cache.size() + "명 로드 완료.");
+    }
+
+    private void flush() {
+        if (dirty.isEmpty()) return;
+
+        List<PlayerProfile> batch = new ArrayList<>();
+        for (String key : new ArrayList<>(dirty.keySet())) {
+            PlayerProfile p = dirty.remove(key);
+            if (p != null) batch.add(p);
+        }
+
+        try (BufferedWriter w = Files.newBufferedWriter(dataFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (PlayerProfile p : batch) {
+                w.write(p.toRecord());
+                w.newLine();
+            }
+            logLines += batch.size();
+        } catch (IOException e) {
+            System.err.println("플레이어 저장소 기록 실패: " + e.getMessage());
+            for (PlayerProfile p : batch) dirty.putIfAbsent(p.nickname, p);
+            return;
+        }
+
+        if (logLines > cache.size() * 2L + 1000) {
+            compactNow();
+        }
+    }
+
+    private void compactNow() {
+        flushPending();
+        Path tmp = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (PlayerProfile p : cache.values()) {
+                w.write(p.toRecord());
+                w.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("플레이어 저장소 압축 실패: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logLines = cache.size();
+        } catch (IOException e) {
+            System.err.println("플레이어 저장소 교체 실패: " + e.getMessage());
+        }
+    }
+
+    // 압축 직전에 남은 변경분은 캐시에 이미 반영되어 있으므로 대기열만 비운다.
+    private void flushPending() {
+        dirty.clear();
+    }
+
+    private void flushNow() {
+        try {
+            writer.submit(this::flush).get(2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("플레이어 저장소 종료 시 기록 실패: " + e.getMessage());
+        }
+    }
+
+    private static String sanitize(String nickname) {
+        String s = nickname == null ? "" : nickname.replace('\t', ' ').replace(',', ' ').replace('\n', ' ').replace('\r', ' ').trim();
+        return s.isEmpty() ? "익명" : s;
+    }
+}
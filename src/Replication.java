@@ -0,0 +1,266 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 주 서버 -> 대기 서버 상태 복제.
+ * 주 서버는 상태 전이가 일어날 때마다 최신 방 스냅샷을 순번과 함께 보내고(밀린 전이는 최신 것 하나로 합침),
+ * 전이가 없어도 남은 시간을 맞추려고 TIME_REFRESH_MILLIS 마다 한 번 보낸다. 직전에 보낸 것과 같은 스냅샷은 보내지 않는다.
+ * 대기 서버는 받은 순번을 모아서 주기적으로 ACK 한다. 연결이 끊기거나 일정 시간 소식이 없으면 대기 서버가 인계받는다.
+ *
+ * 프로토콜(한 줄 단위): "SNAP <seq> <줄 수>" + 스냅샷 본문, "PING", 응답 "ACK <seq>"
+ */
+public class Replication {
+
+    private static final long PING_INTERVAL_MILLIS = 500;
+    private static final long TIME_REFRESH_MILLIS = 5000;
+    private static final byte[] PING = "PING\n".getBytes(StandardCharsets.UTF_8);
+    private static final int FAILOVER_TIMEOUT_MILLIS = 3000;
+    private static final long ACK_INTERVAL_MILLIS = 50;
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+
+    /**
+     * 주 서버 쪽 송신기.
+     */
+    public static class Primary {
+        private final String standbyHost;
+        private final int standbyPort;
+        private final Supplier<RoomCheckpoint> snapshot;
+        private final Object signal = new Object();
+        private boolean dirty = false;
+
+        private final AtomicLong sentSeq = new AtomicLong();
+        private final AtomicLong ackedSeq = new AtomicLong();
+        private final AtomicLong snapshotsSent = new AtomicLong();
+        private final AtomicLong snapshotsSkipped = new AtomicLong();
+        private final AtomicLong bytesSent = new AtomicLong();
+        private final AtomicLong encodeNanos = new AtomicLong();
+        // 마지막으로 확인된 ACK 의 왕복 시간
+        private volatile long lastAckRttNanos = 0;
+        private volatile long lastSentAt = 0;
+        private volatile long lastSentSeqForRtt = 0;
+        // 복제 스레드만 쓴다. 직전에 보낸 스냅샷 본문과 보낸 시각
+        private String lastBody = null;
+        private long lastSnapshotAt = 0;
+
+        public Primary(String standby, Supplier<RoomCheckpoint> snapshot) {
+            int colon = standby.lastIndexOf(':');
+            this.standbyHost = standby.substring(0, colon);
+            this.standbyPort = Integer.parseInt(standby.substring(colon + 1));
+            this.snapshot = snapshot;
+        }
+
+        public void start() {
+            Thread t = new Thread(this::run, "replication-primary");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        /**
+         * 상태 전이 후 호출. 실제 스냅샷과 전송은 복제 스레드가 한다.
+         */
+        public void markDirty() {
+            synchronized (signal) {
+                dirty = true;
+                signal.notify();
+            }
+        }
+
+        public String metrics() {
+            long sent = snapshotsSent.getAndSet(0);
+            long skipped = snapshotsSkipped.getAndSet(0);
+            long bytes = bytesSent.getAndSet(0);
+            long encode = encodeNanos.getAndSet(0);
+            return "전송 " + sent + "건(변경 없어 생략 " + skipped + "건), " + bytes + "바이트, 스냅샷 비용 평균 "
+                    + String.format("%.3f", sent + skipped == 0 ? 0.0 : encode / 1e6 / (sent + skipped)) + "ms, 미확인 순번 "
+                    + (sentSeq.get() - ackedSeq.get()) + "개, 마지막 ACK 왕복 "
+                    + String.format("%.2f", lastAckRttNanos / 1e6) + "ms";
+        }
+
+        private void run() {
+            while (true) {
+                try (Socket socket = new Socket(standbyHost, standbyPort)) {
+                    socket.setTcpNoDelay(true);
+                    System.out.println("대기 서버에 복제 연결: " + standbyHost + ":" + standbyPort);
+                    startAckReader(socket);
+                    OutputStream out = socket.getOutputStream();
+                    // 새 연결에는 무조건 한 번 보낸다.
+                    lastBody = null;
+                    markDirty();
+                    while (!socket.isClosed()) {
+                        boolean send;
+                        synchronized (signal) {
+                            if (!dirty) signal.wait(PING_INTERVAL_MILLIS);
+                            send = dirty;
+                            dirty = false;
+                        }
+                        if (!send && System.nanoTime() - lastSnapshotAt >= TIME_REFRESH_MILLIS * 1_000_000) {
+                            send = true;
+                        }
+                        if (!send || !sendSnapshot(out)) {
+                            out.write(PING);
+                            out.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("복제 연결 실패: " + e.getMessage());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 직전에 보낸 것과 같으면 보내지 않고 false 를 돌려준다.
+         */
+        private boolean sendSnapshot(OutputStream out) throws IOException {
+            long start = System.nanoTime();
+            String body = snapshot.get().encode();
+            encodeNanos.addAndGet(System.nanoTime() - start);
+            lastSnapshotAt = System.nanoTime();
+            if (body.equals(lastBody)) {
+                snapshotsSkipped.incrementAndGet();
+                return false;
+            }
+            lastBody = body;
+
+            long seq = sentSeq.incrementAndGet();
+            int lines = 0;
+            for (int i = 0; i < body.length(); i++) {
+                if (body.charAt(i) == '\n') lines++;
+            }
+            byte[] bytes = ("SNAP " + seq + " " + lines + "\n" + body).getBytes(StandardCharsets.UTF_8);
+            out.write(bytes);
+            out.flush();
+
+            if (lastSentSeqForRtt <= ackedSeq.get()) {
+                lastSentSeqForRtt = seq;
+                lastSentAt = System.nanoTime();
+            }
+            snapshotsSent.incrementAndGet();
+            bytesSent.addAndGet(bytes.length);
+            return true;
+        }
+
+        private void startAckReader(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Thread t = new Thread(() -> {
+                try {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        if (line.startsWith("ACK ")) {
+                            long seq = Long.parseLong(line.substring(4).trim());
+                            ackedSeq.set(seq);
+                            if (seq >= lastSentSeqForRtt && lastSentAt != 0) {
+                                lastAckRttNanos = System.nanoTime() - lastSentAt;
+                                lastSentAt = 0;
+                            }
+                        }
+                    }
+                } catch (IOException | NumberFormatException ignored) {
+                } finally {
+                    try { socket.close(); } catch (IOException ignored) {}
+                }
+            }, "replication-ack-reader");
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /**
+     * 대기 서버. 복제 포트에서 주 서버를 기다리고, 주 서버가 사라지면 onTakeover 에 마지막 스냅샷을 넘긴다.
+     */
+    public static class Standby {
+        private final int replicationPort;
+        private final Consumer<RoomCheckpoint> onTakeover;
+        private volatile List<String> latest = null;
+        private volatile long latestSeq = 0;
+
+        public Standby(int replicationPort, Consumer<RoomCheckpoint> onTakeover) {
+            this.replicationPort = replicationPort;
+            this.onTakeover = onTakeover;
+        }
+
+        /**
+         * 주 서버와 한 번 연결되었다가 끊길 때까지 블록한 뒤 인계를 수행한다.
+         */
+        public void run() throws IOException {
+            System.out.println("대기 서버: 복제 포트 " + replicationPort + "에서 주 서버를 기다립니다.");
+            try (ServerSocket listener = new ServerSocket()) {
+                listener.setReuseAddress(true);
+                listener.bind(new InetSocketAddress(replicationPort));
+                try (Socket primary = listener.accept()) {
+                    primary.setSoTimeout(FAILOVER_TIMEOUT_MILLIS);
+                    System.out.println("대기 서버: 주 서버 연결됨 (" + primary.getRemoteSocketAddress() + ")");
+                    receive(primary);
+                }
+            }
+
+            System.out.println("대기 서버: 주 서버 응답 없음. 순번 " + latestSeq + " 상태로 인계합니다.");
+            List<String> snapshot = latest;
+            onTakeover.accept(snapshot == null ? null : RoomCheckpoint.decode(snapshot));
+        }
+
+        private void receive(Socket primary) {
+            PrintWriter ackOut;
+            BufferedReader in;
+            try {
+                ackOut = new PrintWriter(new OutputStreamWriter(primary.getOutputStream(), StandardCharsets.UTF_8), false);
+                in = new BufferedReader(new InputStreamReader(primary.getInputStream(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                return;
+            }
+
+            long lastAcked = 0;
+            long lastAckAt = System.nanoTime();
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith("SNAP ")) {
+                        String[] parts = line.split(" ");
+                        long seq = Long.parseLong(parts[1]);
+                        int count = Integer.parseInt(parts[2]);
+                        List<String> body = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            String l = in.readLine();
+                            if (l == null) return;
+                            body.add(l);
+                        }
+                        latest = body;
+                        latestSeq = seq;
+                    }
+
+                    // ACK 는 매 스냅샷이 아니라 일정 간격으로 모아서 보낸다.
+                    if (latestSeq != lastAcked && System.nanoTime() - lastAckAt >= ACK_INTERVAL_MILLIS * 1_000_000) {
+                        ackOut.println("ACK " + latestSeq);
+                        ackOut.flush();
+                        lastAcked = latestSeq;
+                        lastAckAt = System.nanoTime();
+                    }
+                }
+            } catch (SocketTimeoutException e) {
+                System.err.println("대기 서버: " + FAILOVER_TIMEOUT_MILLIS + "ms 동안 주 서버 소식 없음");
+            } catch (IOException | RuntimeException e) {
+                System.err.println("대기 서버: 복제 연결 종료 (" + e.getMessage() + ")");
+            }
+        }
+    }
+}
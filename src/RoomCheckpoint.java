@@ -0,0 +1,185 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 방(로비) 상태의 불변 스냅샷. 게임 스레드는 락 안에서 값만 복사해 만들고,
+ * 파일 기록은 체크포인트 스레드가 따로 한다.
+ */
+public final class RoomCheckpoint {
+
+    public static final class Seat {
+        public final int playerNumber;
+        public final String name;
+        public final String role;
+        public final String status;
+        public final boolean ready;
+        public final boolean host;
+        // 입장할 때 그 연결에만 알려 준 좌석 토큰. 복구된 좌석은 이 토큰을 보낸 연결만 이어받는다.
+        public final String token;
+
+        public Seat(int playerNumber, String name, String role, String status, boolean ready, boolean host, String token) {
+            this.playerNumber = playerNumber;
+            this.name = name.replace('\t', ' ');
+            this.role = role;
+            this.status = status;
+            this.ready = ready;
+            this.host = host;
+            this.token = token;
+        }
+    }
+
+    public final String phase;
+    public final long timeLeft;
+    public final int nextPlayerNumber;
+    public final List<Seat> seats;
+    public final Map<Integer, Integer> votes;
+    // 0 이면 대상 없음
+    public final int nightKillTarget;
+    public final int nightSaveTarget;
+    public final int nightInvestigateUser;
+    public final int killingMafia;
+    public final Map<Integer, String> investigatedRoles;
+
+    public RoomCheckpoint(String phase, long timeLeft, int nextPlayerNumber, List<Seat> seats, Map<Integer, Integer> votes,
+                          int nightKillTarget, int nightSaveTarget, int nightInvestigateUser, int killingMafia,
+                          Map<Integer, String> investigatedRoles) {
+        this.phase = phase;
+        this.timeLeft = timeLeft;
+        this.nextPlayerNumber = nextPlayerNumber;
+        this.seats = Collections.unmodifiableList(new ArrayList<>(seats));
+        this.votes = Collections.unmodifiableMap(new LinkedHashMap<>(votes));
+        this.nightKillTarget = nightKillTarget;
+        this.nightSaveTarget = nightSaveTarget;
+        this.nightInvestigateUser = nightInvestigateUser;
+        this.killingMafia = killingMafia;
+        this.investigatedRoles = Collections.unmodifiableMap(new LinkedHashMap<>(investigatedRoles));
+    }
+
+    public boolean isInGame() {
+        return !"WAITING".equals(phase);
+    }
+
+    String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("phase=").append(phase).append('\n');
+        sb.append("timeLeft=").append(timeLeft).append('\n');
+        sb.append("nextPlayer=").append(nextPlayerNumber).append('\n');
+        sb.append("night=").append(nightKillTarget).append('\t').append(nightSaveTarget).append('\t')
+                .append(nightInvestigateUser).append('\t').append(killingMafia).append('\n');
+        for (Seat s : seats) {
+            sb.append("seat=").append(s.playerNumber).append('\t').append(s.name).append('\t')
+                    .append(s.role).append('\t').append(s.status).append('\t').append(s.ready).append('\t')
+                    .append(s.host).append('\t').append(s.token).append('\n');
+        }
+        for (Map.Entry<Integer, Integer> e : votes.entrySet()) {
+            sb.append("vote=").append(e.getKey()).append('\t').append(e.getValue()).append('\n');
+        }
+        for (Map.Entry<Integer, String> e : investigatedRoles.entrySet()) {
+            sb.append("investigated=").append(e.getKey()).append('\t').append(e.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static RoomCheckpoint decode(List<String> lines) {
+        String phase = "WAITING";
+        long timeLeft = 0;
+        int nextPlayer = 1;
+        int[] night = new int[4];
+        List<Seat> seats = new ArrayList<>();
+        Map<Integer, Integer> votes = new LinkedHashMap<>();
+        Map<Integer, String> investigated = new LinkedHashMap<>();
+
+        for (String line : lines) {
+            int eq = line.indexOf('=');
+            if (eq < 0) continue;
+            String key = line.substring(0, eq);
+            String[] v = line.substring(eq + 1).split("\t");
+            switch (key) {
+                case "phase": phase = v[0]; break;
+                case "timeLeft": timeLeft = Long.parseLong(v[0]); break;
+                case "nextPlayer": nextPlayer = Integer.parseInt(v[0]); break;
+                case "night":
+                    for (int i = 0; i < 4 && i < v.length; i++) night[i] = Integer.parseInt(v[i]);
+                    break;
+                case "seat":
+                    // 방장/토큰 열이 없는 예전 체크포인트는 방장 없음, 이어받을 수 없는 좌석으로 읽는다.
+                    seats.add(new Seat(Integer.parseInt(v[0]), v[1], v[2], v[3], Boolean.parseBoolean(v[4]),
+                            v.length > 5 && Boolean.parseBoolean(v[5]), v.length > 6 ? v[6] : ""));
+                    break;
+                case "vote": votes.put(Integer.parseInt(v[0]), Integer.parseInt(v[1])); break;
+                case "investigated": investigated.put(Integer.parseInt(v[0]), v[1]); break;
+                default: break;
+            }
+        }
+        return new RoomCheckpoint(phase, timeLeft, nextPlayer, seats, votes, night[0], night[1], night[2], night[3], investigated);
+    }
+
+    public static RoomCheckpoint load(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        return decode(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 원자적으로 교체한다.
+     */
+    public static void save(Path file, RoomCheckpoint checkpoint) throws IOException {
+        writeAtomically(file, checkpoint.encode());
+    }
+
+    private static void writeAtomically(Path file, String encoded) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            w.write(encoded);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 주기적으로 스냅샷을 받아 바뀐 경우에만 파일에 쓴다(임시 파일 기록 후 원자적 교체).
+     */
+    public static class Writer {
+        private final Path file;
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "room-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        private String lastWritten = null;
+
+        public Writer(Path file) {
+            this.file = file;
+        }
+
+        public void start(Supplier<RoomCheckpoint> snapshot, long periodMillis) {
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    write(snapshot.get());
+                } catch (Exception e) {
+                    System.err.println("체크포인트 실패: " + e.getMessage());
+                }
+            }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void write(RoomCheckpoint checkpoint) throws IOException {
+            String encoded = checkpoint.encode();
+            if (encoded.equals(lastWritten)) {
+                return;
+            }
+            writeAtomically(file, encoded);
+            lastWritten = encoded;
+        }
+    }
+}
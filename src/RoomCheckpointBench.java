@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * 체크포인트 복구 비용을 방 수만큼 늘려 잰다. 게임 중인 방(8좌석, 투표/조사 결과 포함) 체크포인트를
+ * 임시 디렉터리에 방 수만큼 저장하고, 전부 읽어 해석하는 데 걸린 시간을 한 스레드와 여러 스레드로 잰다.
+ *
+ * 서버는 프로세스 하나가 방 하나를 맡으므로 이 수치는 "방 N개를 한 호스트에서 다시 띄울 때의 파일 읽기+해석" 부분만이다.
+ * 프로세스 기동, 포트 바인드, 클라이언트 재접속(RECLAIM)까지의 시간은 포함하지 않는다.
+ *
+ * 실행: java RoomCheckpointBench [방 수] [스레드 수]
+ */
+public class RoomCheckpointBench {
+
+    private static final String[] ROLES = {"MAFIA", "MAFIA", "DOCTOR", "POLICE", "CITIZEN", "CITIZEN", "CITIZEN", "CITIZEN"};
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Path dir = Files.createTempDirectory("ckpt-bench");
+        try {
+            Random random = new Random(7);
+            long bytes = 0;
+            List<Path> files = new ArrayList<>(rooms);
+            for (int r = 0; r < rooms; r++) {
+                Path file = dir.resolve("room-" + r + ".ckpt");
+                RoomCheckpoint.save(file, room(r, random));
+                bytes += Files.size(file);
+                files.add(file);
+            }
+            System.out.printf("방 %d개 체크포인트 저장: 합계 %.1f KB (방당 %d B)%n", rooms, bytes / 1024.0, bytes / rooms);
+
+            // 워밍업 (클래스 로딩, JIT). 페이지 캐시에 올라간 상태에서 재므로 디스크 읽기 지연은 빠진다.
+            loadAll(files, 1);
+            report("1 스레드", loadAll(files, 1));
+            report(threads + " 스레드", loadAll(files, threads));
+        } finally {
+            try (Stream<Path> paths = Files.list(dir)) {
+                for (Path p : (Iterable<Path>) paths::iterator) {
+                    Files.deleteIfExists(p);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static RoomCheckpoint room(int r, Random random) {
+        List<RoomCheckpoint.Seat> seats = new ArrayList<>();
+        Map<Integer, Integer> votes = new HashMap<>();
+        Map<Integer, String> investigated = new HashMap<>();
+        for (int p = 1; p <= ROLES.length; p++) {
+            byte[] token = new byte[16];
+            random.nextBytes(token);
+            seats.add(new RoomCheckpoint.Seat(p, "방" + r + "-플레이어" + p, ROLES[p - 1],
+                    random.nextInt(4) == 0 ? "DEAD" : "ALIVE", true, p == 1,
+                    Base64.getUrlEncoder().withoutPadding().encodeToString(token)));
+            votes.put(p, 1 + random.nextInt(ROLES.length));
+        }
+        investigated.put(3, "CITIZEN");
+        return new RoomCheckpoint("DAY", 1 + random.nextInt(60), ROLES.length + 1, seats, votes,
+                0, 0, 0, 0, investigated);
+    }
+
+    /**
+     * 방별 load 시간(나노초)을 돌려준다. 마지막 원소는 전체 벽시계 시간이다.
+     */
+    private static long[] loadAll(List<Path> files, int threads) throws Exception {
+        long[] times = new long[files.size() + 1];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            int chunk = (files.size() + threads - 1) / threads;
+            for (int t = 0; t < threads; t++) {
+                int from = t * chunk;
+                int to = Math.min(files.size(), from + chunk);
+                futures.add(pool.submit(() -> {
+                    for (int i = from; i < to; i++) {
+                        long s = System.nanoTime();
+                        RoomCheckpoint checkpoint;
+                        try {
+                            checkpoint = RoomCheckpoint.load(files.get(i));
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        if (checkpoint == null || !checkpoint.isInGame() || checkpoint.seats.size() != ROLES.length) {
+                            throw new IllegalStateException("복구 결과 불일치: " + files.get(i));
+                        }
+                        times[i] = System.nanoTime() - s;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            times[files.size()] = System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+        return times;
+    }
+
+    private static void report(String label, long[] times) {
+        long wall = times[times.length - 1];
+        long[] each = Arrays.copyOf(times, times.length - 1);
+        Arrays.sort(each);
+        System.out.printf("%-10s | 전체 %7.1f ms | 방당 p50 %6.1f us, p99 %6.1f us, 최대 %7.1f us%n", label,
+                wall / 1e6, each[each.length / 2] / 1e3, each[(int) (each.length * 0.99)] / 1e3, each[each.length - 1] / 1e3);
+    }
+}
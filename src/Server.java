@@ -1,15 +1,31 @@
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.net.ServerSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.*;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
 import javax.swing.SwingUtilities;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -18,21 +34,34 @@ import javax.swing.JOptionPane;
 
 public class Server {
 
-    private static Set<ClientHandler> clientHandlers = new HashSet<>();
+    // [수정] 입장 순서를 지킨다. 순회 순서가 실행마다 같아야 시드를 준 게임이 재현된다.
+    private static Set<ClientHandler> clientHandlers = new LinkedHashSet<>();
     private static volatile ClientHandler currentHost = null;
+    private static final SecureRandom tokenRandom = new SecureRandom();
 
     private enum GamePhase { WAITING, DAY, NIGHT }
     private static GamePhase currentPhase = GamePhase.WAITING;
 
-    private static ScheduledExecutorService phaseScheduler = Executors.newSingleThreadScheduledExecutor();
-    private static ScheduledExecutorService timerUpdater = Executors.newSingleThreadScheduledExecutor();
+    // [신규] 단계 전환/타이머/주기 작업은 모두 이 시계로 예약한다. 테스트에서는 VirtualClock 으로 바꾼다.
+    private static volatile GameClock clock = new ClockTasks(new GameClock.WallClock("game-clock", 1));
+    // [신규] 시계 작업을 실행 중인 스레드 표시. 이 스레드는 송신을 직접 쓰지 않고 송신 스레드로 넘긴다.
+    private static final ThreadLocal<Boolean> onClockThread = new ThreadLocal<>();
+    // 역할 배정 난수 (useRandom 으로 시드를 줄 수 있다)
+    private static volatile Random random = new Random();
+    // 시계 작업이 넘긴 flush 를 실제로 쓰는 스레드. 읽지 않는 상대에게 막혀도 그 연결의 스레드 하나만 묶인다.
+    private static final ExecutorService clockWriters = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "clock-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private static GameClock.Task phaseTask = null;
 
     private static final long PHASE_TIME_SECONDS = 60;
     private static volatile long currentPhaseTimeLeft = 0;
 
     private static AtomicInteger playerCounter = new AtomicInteger(1);
 
-    private static Map<ClientHandler, ClientHandler> votes = new HashMap<>();
+    private static Map<ClientHandler, ClientHandler> votes = new LinkedHashMap<>();
 
     private static ClientHandler nightKillTarget = null;
     private static ClientHandler nightSaveTarget = null;
@@ -42,11 +71,120 @@ public class Server {
     // [신규] 클라이언트에게 조사 결과를 알려주기 위한 맵
     private static Map<Integer, String> investigatedRoles = new HashMap<>();
 
+    // [신규] 닉네임별 전적 저장소 (조회/갱신은 캐시, 파일 기록은 백그라운드)
+    private static final PlayerStore playerStore = new PlayerStore("players.db");
+
+    // [신규] 송신 압축. 클라이언트가 "COMPRESS:DEFLATE" 로 요청하면 이 레벨(0~9)로 연결 전체에 DEFLATE 를 건다.
+    // -1 이면 꺼짐. --compress <레벨> 또는 -Dmafia.compress=<레벨> 로 켠다.
+    private static volatile int compressionLevel = Integer.getInteger("mafia.compress", -1);
+    private static final int DEFLATE_BUFFER_SIZE = 8 * 1024;
+    // [수정] 압축 출력 버퍼는 연결마다 두지 않고 flush 하는 동안만 빌린다.
+    private static final BufferPool deflateBuffers = new BufferPool(DEFLATE_BUFFER_SIZE, 32, true);
+    private static final AtomicLong compressedMessages = new AtomicLong();
+    private static final AtomicLong compressedRawBytes = new AtomicLong();
+    private static final AtomicLong compressedWireBytes = new AtomicLong();
+    private static final AtomicLong compressNanos = new AtomicLong();
+
+    // [신규] 브라우저용 WebSocket 포트. -1 이면 열지 않는다. --ws <포트> 또는 -Dmafia.ws.port=<포트> 로 켠다.
+    private static volatile int webSocketPort = Integer.getInteger("mafia.ws.port", -1);
+    private static final AtomicLong webSocketSessions = new AtomicLong();
+
+    // [신규] 하트비트. 이 시간 동안 아무것도 받지 못하면 PING 을 보내고, idle 제한을 넘기면 연결을 정리한다.
+    // --heartbeat <초> / --idle-timeout <초> 또는 -Dmafia.heartbeat.seconds / -Dmafia.idle.timeout.seconds
+    private static volatile long heartbeatMillis = TimeUnit.SECONDS.toMillis(Long.getLong("mafia.heartbeat.seconds", 15));
+    private static volatile long idleTimeoutMillis = TimeUnit.SECONDS.toMillis(Long.getLong("mafia.idle.timeout.seconds", 45));
+    private static final long HEARTBEAT_TICK_MILLIS = 1000;
+    private static final int HEARTBEAT_WHEEL_SLOTS = 64;
+    // 모든 연결의 하트비트를 휠 하나와 시계 작업 하나로 돈다.
+    private static TimingWheel<ClientHandler> heartbeatWheel;
+    private static final AtomicLong pingsSent = new AtomicLong();
+    private static final AtomicLong reapedConnections = new AtomicLong();
+    private static final AtomicLong reapedTotal = new AtomicLong();
+
+    // [신규] 접속 허용 제어. 넘치는 연결은 풀에 넣지 않고 수락 스레드에서 "SYSTEM:REJECTED:<이유>" 로 바로 돌려보낸다.
+    // 연결마다 풀 스레드 하나를 쓰므로 풀 크기를 전체 상한과 같게 두어 실행 대기열이 쌓이지 않게 한다.
+    // --max-connections / --max-per-ip / --connect-rate <주소별 초당> / --backlog / --acceptors <수> / --reuseport true
+    // / --trusted-proxies host[,host...]
+    // 또는 -Dmafia.max.connections / -Dmafia.max.per.ip / -Dmafia.connect.rate / -Dmafia.backlog / -Dmafia.acceptors / -Dmafia.reuseport
+    // / -Dmafia.trusted.proxies
+    // 기본값에서 노드 하나는 동시 연결 10개까지만 받는다 (게이트웨이 뒤라면 그 게이트웨이로 들어오는 플레이어 전체가 나눠 쓴다).
+    // 방 여러 개나 벤치마크를 받을 노드는 --max-connections 를 늘린다.
+    private static volatile int maxConnections = Integer.getInteger("mafia.max.connections", 10);
+    private static volatile int maxConnectionsPerAddress = Integer.getInteger("mafia.max.per.ip", 4);
+    private static volatile double connectsPerSecond = Double.parseDouble(System.getProperty("mafia.connect.rate", "2"));
+    private static final int CONNECT_BURST = 5;
+    // 주소별 제한(--max-per-ip, --connect-rate)을 걸지 않는 프록시 주소. 게이트웨이 뒤 노드에는 모든 플레이어가 게이트웨이 주소로 보인다.
+    // --gateway 로 등록하는 게이트웨이의 주소는 자동으로 넣는다. 게이트웨이가 다른 주소로 나가는 경우에는 그 주소를 직접 적는다.
+    private static volatile String trustedProxies = System.getProperty("mafia.trusted.proxies", "");
+    private static volatile int acceptBacklog = Integer.getInteger("mafia.backlog", 128);
+    private static volatile int acceptorThreads = Integer.getInteger("mafia.acceptors", 1);
+    private static volatile boolean reusePort = Boolean.getBoolean("mafia.reuseport");
+    private static final long ACCEPT_ERROR_BACKOFF_MILLIS = 100;
+    private static AdmissionControl admission;
+
+    // [신규] 대기 중인 연결이 버퍼를 붙들지 않도록 수신 버퍼는 공용 풀에서 읽는 동안만 빌린다.
+    // 채널에 direct 버퍼로 바로 읽어 JDK 가 스레드마다 임시 direct 버퍼 캐시를 만들지 않게 한다.
+    private static final int IO_BUFFER_SIZE = 2 * 1024;
+    private static final BufferPool ioBuffers = new BufferPool(IO_BUFFER_SIZE, 256, true);
+    // WebSocket 페이로드 마스크를 푸는 작업 버퍼
+    private static final BufferPool webSocketChunks = new BufferPool(1024, 64, false);
+    // 연결 스레드는 깊은 호출이 없으므로 기본(보통 1MB)보다 작은 스택으로 만든다. -Dmafia.handler.stack.kb 로 바꾼다.
+    private static final long HANDLER_STACK_BYTES = Long.getLong("mafia.handler.stack.kb", 256) * 1024;
+
+    // [신규] 수신 트래픽 캡처. --capture <파일> 또는 -Dmafia.capture=<파일> 로 켜고 TrafficReplay 로 재생한다.
+    private static volatile String capturePath = System.getProperty("mafia.capture");
+    private static volatile TrafficCapture capture = null;
+
+    // [신규] 채팅 금칙어 필터. banned-words.txt 가 바뀌면 중계를 멈추지 않고 다시 읽는다.
+    private static final ChatFilter chatFilter = new ChatFilter(Paths.get("banned-words.txt"));
+    private static final long CHAT_FILTER_RELOAD_SECONDS = 5;
+
+    // [신규] 매칭 대기열 (/queue). 비슷한 레이팅끼리 묶어 자동으로 게임을 시작한다.
+    private static final int MATCH_MIN_PLAYERS = 4;
+    private static final int MATCH_MAX_PLAYERS = 8;
+    private static final long MATCH_MAX_WAIT_MILLIS = 30_000;
+    private static final Matchmaker<ClientHandler> matchmaker = new Matchmaker<>(
+            MATCH_MIN_PLAYERS, MATCH_MAX_PLAYERS, MATCH_MAX_WAIT_MILLIS,
+            h -> playerStore.getOrCreate(h.name).rating(),
+            Server::startMatchedGame);
+
+    // [신규] 채팅/명령 도배 방지. 연결별 버킷 + 방(로비) 전체 채팅 버킷
+    private static final int MAX_LINE_LENGTH = 1024;
+    private static final TokenBucket roomChatBucket = new TokenBucket(20, 40, Server::clockNanos);
+    private static final AtomicLong throttledChats = new AtomicLong();
+    private static final AtomicLong throttledCommands = new AtomicLong();
+    private static final AtomicLong oversizedLines = new AtomicLong();
+
+    // [신규] 상태 전이 단위 송신 묶음. 메시지 수 대비 flush(=write syscall) 횟수를 집계한다.
+    private static final ThreadLocal<Set<ClientHandler>> pendingFlush = new ThreadLocal<>();
+    private static final AtomicLong sentMessages = new AtomicLong();
+    private static final AtomicLong sentFlushes = new AtomicLong();
+
+    // [신규] 방 상태 체크포인트 주기
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 2000;
+
+    // [신규] 인원이 모자란 로비를 일정 시간 뒤 봇으로 채워 시작
+    private static final long BOT_FILL_TIMEOUT_SECONDS = 60;
+    private static long underfilledSeconds = 0;
+
+    // [신규] 대기 서버 복제 (--replicate-to 로 켰을 때만)
+    private static volatile Replication.Primary replicator = null;
+
     private enum Role { NONE, MAFIA, CITIZEN, POLICE, DOCTOR }
     private enum PlayerStatus { ALIVE, DEAD }
 
 
     public static void main(String[] args) {
+        // [신규] GUI 없는 실행
+        //   java Server --headless <port> [--gateway host:관리포트] [--advertise host] [--replicate-to host:복제포트] [--compress 레벨] [--ws 포트]
+        //                 [--heartbeat 초] [--idle-timeout 초] [--max-connections 수] [--max-per-ip 수] [--connect-rate 초당]
+        //                 [--backlog 수] [--acceptors 수] [--reuseport true] [--capture 파일] [--trusted-proxies host,...]
+        //   java Server --standby <port> <복제포트> [--gateway host:관리포트] [--advertise host] [--compress 레벨] [--ws 포트]
+        if (args.length >= 2 && (args[0].equals("--headless") || args[0].equals("--standby"))) {
+            runHeadless(args);
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             ServerGUI serverGUI = new ServerGUI();
 
@@ -68,28 +206,556 @@ public class Server {
         });
     }
 
-    private static void startServerLogic(int port) throws IOException {
-        System.out.println("게임 서버가 시작되었습니다. (Port: " + port + ")");
-        ExecutorService pool = Executors.newFixedThreadPool(10);
+    /**
+     * [수정] 수락 스레드를 acceptorThreads 개 띄운다. 기본은 소켓 하나를 여러 스레드가 함께 accept 하고,
+     * --reuseport 면 SO_REUSEPORT 소켓을 스레드마다 따로 열어 커널이 연결을 나눠 주게 한다.
+     * 바인드는 호출한 스레드에서 하므로 포트를 못 열면 시작이 실패한다.
+     */
+    private static void startListener(int port, ExecutorService pool, boolean webSocket) throws IOException {
+        String name = webSocket ? "ws-listener" : "tcp-listener";
+        boolean perThread = reusePort && supportsReusePort();
+        if (reusePort && !perThread) {
+            System.err.println("이 플랫폼은 SO_REUSEPORT 를 지원하지 않아 수락 소켓 하나를 함께 씁니다.");
+        }
+        ServerSocketChannel shared = perThread ? null : openListener(port, false);
+        for (int i = 0; i < acceptorThreads; i++) {
+            ServerSocketChannel listener = perThread ? openListener(port, true) : shared;
+            new Thread(() -> acceptLoop(listener, port, pool, webSocket), acceptorThreads > 1 ? name + "-" + i : name).start();
+        }
+    }
 
-        new Thread(() -> {
-            try (ServerSocket listener = new ServerSocket(port)) {
-                while (true) {
-                    pool.execute(new ClientHandler(listener.accept()));
+    private static boolean supportsReusePort() {
+        try (ServerSocketChannel probe = ServerSocketChannel.open()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static ServerSocketChannel openListener(int port, boolean reuse) throws IOException {
+        ServerSocketChannel listener = ServerSocketChannel.open();
+        try {
+            if (reuse) {
+                listener.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            }
+            listener.bind(new InetSocketAddress(port), acceptBacklog);
+            return listener;
+        } catch (IOException e) {
+            listener.close();
+            throw e;
+        }
+    }
+
+    private static void acceptLoop(ServerSocketChannel listener, int port, ExecutorService pool, boolean webSocket) {
+        while (true) {
+            try {
+                SocketChannel channel = listener.accept();
+                InetAddress address = remoteAddress(channel);
+                if (address == null) {
+                    // 수락 직후 이미 끊긴 연결
+                    channel.close();
+                    continue;
                 }
+                String reason = admission.tryAdmit(address);
+                if (reason != null) {
+                    reject(channel, reason, webSocket);
+                    continue;
+                }
+                // 송신은 배치로 모아 한 번에 쓰므로 Nagle 로 더 기다릴 이유가 없다. 시계 작업의 flush 는 송신 스레드가 따로 써서,
+                // 그 직후의 응답이 지연 ACK 를 기다리며 40ms 씩 묶이지 않게 한다.
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                pool.execute(new ClientHandler(channel, webSocket, address));
+            } catch (ClosedChannelException e) {
+                return;
             } catch (IOException e) {
-                System.err.println("서버 리스너 오류: " + e.getMessage());
+                // 한 연결의 accept 실패(파일 디스크립터 부족 등)로 수락을 멈추지 않는다. 같은 오류로 헛돌지 않게 잠깐 쉰다.
+                System.err.println("서버 리스너 오류 (Port " + port + "): " + e.getMessage());
+                try {
+                    Thread.sleep(ACCEPT_ERROR_BACKOFF_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
             }
-        }).start();
+        }
+    }
 
-        timerUpdater.scheduleAtFixedRate(() -> {
+    private static InetAddress remoteAddress(SocketChannel channel) {
+        try {
+            return ((InetSocketAddress) channel.getRemoteAddress()).getAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 거절 사유 한 줄(WebSocket 이면 503 응답)을 보내고 닫는다. 수락 스레드를 막지 않도록 논블로킹으로 한 번만 쓴다.
+     */
+    private static void reject(SocketChannel channel, String reason, boolean webSocket) {
+        try (channel) {
+            channel.configureBlocking(false);
+            channel.write(webSocket ? WebSocketSession.serviceUnavailable(reason)
+                    : ByteBuffer.wrap(("SYSTEM:REJECTED:" + reason + "\n").getBytes(StandardCharsets.UTF_8)));
+            // 클라이언트가 먼저 보낸 NICKNAME 을 읽지 않은 채 닫으면 RST 가 나가 거절 사유가 버려질 수 있다. 도착한 만큼 비운다.
+            channel.read(ByteBuffer.allocate(MAX_LINE_LENGTH));
+        } catch (IOException ignored) {
+        }
+    }
+
+    static void startServerLogic(int port) throws IOException {
+        System.out.println("게임 서버가 시작되었습니다. (Port: " + port + ")");
+
+        // [신규] 직전 실행의 체크포인트가 있으면 먼저 복구하고, 이후 주기적으로 상태를 저장한다.
+        Path checkpointFile = Paths.get("room-" + port + ".ckpt");
+        restoreFromCheckpoint(checkpointFile);
+        new RoomCheckpoint.Writer(checkpointFile).start(Server::snapshotRoom, CHECKPOINT_INTERVAL_MILLIS);
+        chatFilter.startWatching(CHAT_FILTER_RELOAD_SECONDS);
+        admission = new AdmissionControl(maxConnections, maxConnectionsPerAddress, connectsPerSecond, CONNECT_BURST,
+                resolveTrustedProxies(), Server::clockNanos);
+        AtomicInteger handlerThreads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(maxConnections,
+                r -> new Thread(null, r, "client-" + handlerThreads.incrementAndGet(), HANDLER_STACK_BYTES));
+
+        if (idleTimeoutMillis <= heartbeatMillis) {
+            idleTimeoutMillis = heartbeatMillis * 3;
+            System.err.println("idle 제한은 하트비트 간격보다 길어야 합니다. " + idleTimeoutMillis / 1000 + "초로 맞춥니다.");
+        }
+        heartbeatWheel = new TimingWheel<>(HEARTBEAT_TICK_MILLIS, HEARTBEAT_WHEEL_SLOTS, clock.millis(), ClientHandler::checkHeartbeat);
+        clock.scheduleAtFixedRate(() -> heartbeatWheel.advance(clock.millis()),
+                HEARTBEAT_TICK_MILLIS, HEARTBEAT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        if (capturePath != null) {
+            capture = new TrafficCapture(Paths.get(capturePath), Server::clockNanos);
+            System.out.println("수신 트래픽 캡처: " + capturePath);
+        }
+
+        startListener(port, pool, false);
+        // [신규] 브라우저 접속도 같은 풀과 같은 ClientHandler 로 처리한다. 프레이밍만 다르다.
+        if (webSocketPort > 0) {
+            startListener(webSocketPort, pool, true);
+            System.out.println("WebSocket 접속 대기 (Port: " + webSocketPort + ")");
+        }
+
+        clock.scheduleAtFixedRate(() -> {
             if (currentPhase != GamePhase.WAITING && currentPhaseTimeLeft > 0) {
                 currentPhaseTimeLeft--;
             }
-            broadcast("TIMER:" + currentPhase.name() + ":" + currentPhaseTimeLeft);
+            GamePhase before = currentPhase;
+            Set<ClientHandler> batch = beginBatch();
+            try {
+                broadcast("TIMER:" + currentPhase.name() + ":" + currentPhaseTimeLeft);
+                checkBotFill();
+            } finally {
+                // 남은 시간만 줄어든 초는 복제하지 않는다. 봇 채우기로 게임이 시작됐을 때만 상태 전이다.
+                endBatch(batch, currentPhase != before);
+            }
         }, 0, 1, TimeUnit.SECONDS);
+
+        matchmaker.start(clock, 1000);
+
+        clock.scheduleAtFixedRate(Server::logThrottleMetrics, 60, 60, TimeUnit.SECONDS);
+        clock.scheduleAtFixedRate(Server::logWriteMetrics, 60, 60, TimeUnit.SECONDS);
+        clock.scheduleAtFixedRate(Server::logHeartbeatMetrics, 60, 60, TimeUnit.SECONDS);
+        clock.scheduleAtFixedRate(Server::logAdmissionMetrics, 60, 60, TimeUnit.SECONDS);
+    }
+
+    private static Set<InetAddress> resolveTrustedProxies() {
+        Set<InetAddress> addresses = new HashSet<>();
+        for (String host : trustedProxies.split(",")) {
+            if (host.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                addresses.addAll(Arrays.asList(InetAddress.getAllByName(host.trim())));
+            } catch (UnknownHostException e) {
+                System.err.println("신뢰 프록시 주소를 찾을 수 없습니다: " + host.trim());
+            }
+        }
+        if (!addresses.isEmpty()) {
+            System.out.println("주소별 접속 제한을 걸지 않는 프록시: " + addresses);
+        }
+        return addresses;
+    }
+
+    private static void logAdmissionMetrics() {
+        admission.sweep();
+        long full = admission.takeRejectedFull();
+        long perAddress = admission.takeRejectedPerAddress();
+        long rate = admission.takeRejectedRate();
+        if (full + perAddress + rate > 0) {
+            System.out.println("[접속 제어] 최근 1분 거절: 인원 초과 " + full + "건, 주소별 초과 " + perAddress + "건, 접속 속도 " + rate
+                    + "건 (연결 " + admission.active() + "/" + admission.maxConnections() + ", 누적 허용 " + admission.admitted()
+                    + ", 추적 주소 " + admission.trackedAddresses() + "개)");
+        }
+    }
+
+    private static void logHeartbeatMetrics() {
+        long pings = pingsSent.getAndSet(0);
+        long reaped = reapedConnections.getAndSet(0);
+        if (pings + reaped > 0) {
+            System.out.println("[하트비트] 최근 1분: PING " + pings + "회, 응답 없는 연결 정리 " + reaped + "개 (누적 "
+                    + reapedTotal.get() + "개, 감시 중 " + heartbeatWheel.size() + "개)");
+        }
+    }
+
+    /**
+     * 서버가 쓸 시계를 바꾼다. startServerLogic 전에 호출해야 하며 봇 행동 예약에도 같은 시계를 쓴다.
+     */
+    static void useClock(GameClock gameClock) {
+        clock = new ClockTasks(gameClock);
+        BotPlayer.useClock(gameClock);
+    }
+
+    /**
+     * [신규] 역할 배정과 봇 행동의 난수에 시드를 준다. VirtualClock 과 함께 쓰면 같은 시드는 같은 게임을 만든다.
+     * startServerLogic 전에 호출한다.
+     */
+    static void useRandom(long seed) {
+        random = new Random(seed);
+        BotPlayer.useRandom(new Random(seed * 31 + 17));
+    }
+
+    /**
+     * [신규] 시계 작업이 도는 동안 onClockThread 를 켜 두는 포장. 그 안의 송신은 flushLater 로 넘어가
+     * 단계 전환, 타이머, 하트비트가 한 연결의 막힌 쓰기를 기다리지 않는다.
+     */
+    private static final class ClockTasks implements GameClock {
+        private final GameClock delegate;
+
+        ClockTasks(GameClock delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long nanoTime() {
+            return delegate.nanoTime();
+        }
+
+        @Override
+        public Task schedule(Runnable task, long delay, TimeUnit unit) {
+            return delegate.schedule(marked(task), delay, unit);
+        }
+
+        @Override
+        public Task scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            return delegate.scheduleAtFixedRate(marked(task), initialDelay, period, unit);
+        }
+
+        private static Runnable marked(Runnable task) {
+            return () -> {
+                onClockThread.set(Boolean.TRUE);
+                try {
+                    task.run();
+                } finally {
+                    onClockThread.remove();
+                }
+            };
+        }
+    }
+
+    private static long clockNanos() {
+        return clock.nanoTime();
+    }
+
+    /**
+     * [신규] 좌석 토큰. 추측할 수 없도록 SecureRandom 16바이트를 URL-safe Base64 로 만든다.
+     */
+    private static String newSeatToken() {
+        byte[] bytes = new byte[16];
+        tokenRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * [신규] 한 번의 상태 전이(명령 처리, 단계 전환 등) 동안 보낸 메시지를 클라이언트별로 모아 두었다가
+     * endBatch 에서 한 번에 flush 한다. 이미 배치 중이면 null 을 반환한다(중첩 배치는 바깥에서 flush).
+     */
+    private static Set<ClientHandler> beginBatch() {
+        if (pendingFlush.get() != null) {
+            return null;
+        }
+        Set<ClientHandler> batch = new LinkedHashSet<>();
+        pendingFlush.set(batch);
+        return batch;
+    }
+
+    private static void endBatch(Set<ClientHandler> batch) {
+        endBatch(batch, true);
+    }
+
+    /**
+     * [수정] stateChanged 가 거짓이면(매초 TIMER 처럼 방 상태가 바뀌지 않은 배치) 대기 서버로 복제하지 않는다.
+     * 남은 시간은 복제기가 주기적으로 따로 맞춘다.
+     */
+    private static void endBatch(Set<ClientHandler> batch, boolean stateChanged) {
+        if (batch == null) {
+            return;
+        }
+        pendingFlush.remove();
+        boolean offload = onClockThread.get() != null;
+        for (ClientHandler handler : batch) {
+            if (offload) {
+                handler.flushLater();
+            } else {
+                handler.flush();
+            }
+        }
+        // 배치 하나가 상태 전이 하나이므로 대기 서버로 복제할 시점이기도 하다.
+        if (stateChanged && replicator != null) {
+            replicator.markDirty();
+        }
+    }
+
+    private static void logWriteMetrics() {
+        long messages = sentMessages.getAndSet(0);
+        long flushes = sentFlushes.getAndSet(0);
+        if (messages > 0) {
+            System.out.println("[송신] 최근 1분: 메시지 " + messages + "건, flush " + flushes + "회 (flush 당 "
+                    + String.format("%.1f", (double) messages / Math.max(1, flushes)) + "건)");
+        }
+
+        long webSockets = webSocketSessions.get();
+        if (webSockets > 0) {
+            System.out.println("[WebSocket] 누적 세션 " + webSockets + "개");
+        }
+
+        long compressed = compressedMessages.getAndSet(0);
+        if (compressed > 0) {
+            long raw = compressedRawBytes.getAndSet(0);
+            long wire = compressedWireBytes.getAndSet(0);
+            long nanos = compressNanos.getAndSet(0);
+            System.out.println("[압축] 최근 1분: 메시지 " + compressed + "건, " + raw + " -> " + wire + "바이트 ("
+                    + String.format("%.1f", 100.0 * (raw - wire) / Math.max(1, raw)) + "% 절약), CPU "
+                    + String.format("%.2f", nanos / 1000.0 / compressed) + "us/메시지");
+        }
+    }
+
+    private static void logThrottleMetrics() {
+        long chats = throttledChats.getAndSet(0);
+        long commands = throttledCommands.getAndSet(0);
+        long oversized = oversizedLines.getAndSet(0);
+        if (chats + commands + oversized > 0) {
+            System.out.println("[도배 방지] 최근 1분: 채팅 차단 " + chats + "건, 명령 차단 " + commands
+                    + "건, 길이 초과 " + oversized + "건 (방 채팅 누적 허용 " + roomChatBucket.getAllowedCount() + "건)");
+        }
+        System.out.println("[금칙어] " + chatFilter.metrics());
+    }
+
+
+    /**
+     * 현재 방 상태를 복사해 불변 스냅샷을 만든다. 락은 값 복사 동안만 잡는다.
+     */
+    private static synchronized RoomCheckpoint snapshotRoom() {
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("snapshotRoom");
+        synchronized (clientHandlers) {
+            lockWait.acquired();
+            List<RoomCheckpoint.Seat> seats = new ArrayList<>();
+            for (ClientHandler h : clientHandlers) {
+                seats.add(new RoomCheckpoint.Seat(h.playerNumber, h.name, h.role.name(), h.status.name(), h.isReady,
+                        h.isHost, h.seatToken));
+            }
+            Map<Integer, Integer> voteNumbers = new LinkedHashMap<>();
+            for (Map.Entry<ClientHandler, ClientHandler> entry : votes.entrySet()) {
+                voteNumbers.put(entry.getKey().playerNumber, entry.getValue().playerNumber);
+            }
+            return new RoomCheckpoint(currentPhase.name(), currentPhaseTimeLeft, playerCounter.get(), seats, voteNumbers,
+                    numberOf(nightKillTarget), numberOf(nightSaveTarget), numberOf(nightInvestigateUser), numberOf(killingMafia),
+                    investigatedRoles);
+        }
+    }
+
+    private static int numberOf(ClientHandler handler) {
+        return handler == null ? 0 : handler.playerNumber;
+    }
+
+    /**
+     * 진행 중이던 게임을 복구한다. 좌석은 연결 없이 만들어 두고, 입장 때 받은 좌석 토큰(RECLAIM:)을 보낸 연결이 이어받는다.
+     */
+    private static synchronized void restoreFromCheckpoint(Path file) {
+        long start = System.nanoTime();
+        RoomCheckpoint checkpoint;
+        try {
+            checkpoint = RoomCheckpoint.load(file);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("체크포인트 로드 실패: " + e.getMessage());
+            return;
+        }
+        if (checkpoint == null || !checkpoint.isInGame()) {
+            return;
+        }
+
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("restoreFromCheckpoint");
+        synchronized (clientHandlers) {
+            lockWait.acquired();
+            Map<Integer, ClientHandler> byNumber = new HashMap<>();
+            for (RoomCheckpoint.Seat seat : checkpoint.seats) {
+                ClientHandler h = new ClientHandler(seat.playerNumber, seat.name);
+                h.role = Role.valueOf(seat.role);
+                h.status = PlayerStatus.valueOf(seat.status);
+                h.isReady = seat.ready;
+                h.isHost = seat.host;
+                h.seatToken = seat.token;
+                if (seat.host) {
+                    currentHost = h;
+                }
+                clientHandlers.add(h);
+                byNumber.put(seat.playerNumber, h);
+            }
+            for (Map.Entry<Integer, Integer> vote : checkpoint.votes.entrySet()) {
+                ClientHandler voter = byNumber.get(vote.getKey());
+                ClientHandler target = byNumber.get(vote.getValue());
+                if (voter != null && target != null) votes.put(voter, target);
+            }
+            nightKillTarget = byNumber.get(checkpoint.nightKillTarget);
+            nightSaveTarget = byNumber.get(checkpoint.nightSaveTarget);
+            nightInvestigateUser = byNumber.get(checkpoint.nightInvestigateUser);
+            killingMafia = byNumber.get(checkpoint.killingMafia);
+            investigatedRoles.putAll(checkpoint.investigatedRoles);
+            playerCounter.set(checkpoint.nextPlayerNumber);
+            currentPhase = GamePhase.valueOf(checkpoint.phase);
+        }
+
+        scheduleDayNightTimer(Math.max(1, checkpoint.timeLeft));
+        System.out.println("체크포인트 복구 완료: " + checkpoint.phase + " 단계, 좌석 " + checkpoint.seats.size()
+                + "개, 남은 시간 " + checkpoint.timeLeft + "초 (" + (System.nanoTime() - start) / 1_000_000 + "ms)");
+    }
+
+    private static void runHeadless(String[] args) {
+        int port = Integer.parseInt(args[1]);
+        boolean standby = args[0].equals("--standby");
+        int optionStart = standby ? 3 : 2;
+
+        Map<String, String> options = new HashMap<>();
+        for (int i = optionStart; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        String gateway = options.get("--gateway");
+        String advertised = options.getOrDefault("--advertise", InetAddress.getLoopbackAddress().getHostAddress());
+        if (options.containsKey("--compress")) {
+            compressionLevel = Integer.parseInt(options.get("--compress"));
+        }
+        if (options.containsKey("--ws")) {
+            webSocketPort = Integer.parseInt(options.get("--ws"));
+        }
+        if (options.containsKey("--heartbeat")) {
+            heartbeatMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(options.get("--heartbeat")));
+        }
+        if (options.containsKey("--idle-timeout")) {
+            idleTimeoutMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(options.get("--idle-timeout")));
+        }
+        if (options.containsKey("--max-connections")) {
+            maxConnections = Integer.parseInt(options.get("--max-connections"));
+        }
+        if (options.containsKey("--max-per-ip")) {
+            maxConnectionsPerAddress = Integer.parseInt(options.get("--max-per-ip"));
+        }
+        if (options.containsKey("--connect-rate")) {
+            connectsPerSecond = Double.parseDouble(options.get("--connect-rate"));
+        }
+        if (options.containsKey("--backlog")) {
+            acceptBacklog = Integer.parseInt(options.get("--backlog"));
+        }
+        if (options.containsKey("--acceptors")) {
+            acceptorThreads = Math.max(1, Integer.parseInt(options.get("--acceptors")));
+        }
+        if (options.containsKey("--reuseport")) {
+            reusePort = Boolean.parseBoolean(options.get("--reuseport"));
+        }
+        if (options.containsKey("--capture")) {
+            capturePath = options.get("--capture");
+        }
+        if (options.containsKey("--trusted-proxies")) {
+            trustedProxies = options.get("--trusted-proxies");
+        }
+        if (gateway != null) {
+            // 게이트웨이를 거친 플레이어는 모두 게이트웨이 주소로 들어온다.
+            trustedProxies = trustedProxies + "," + gateway.substring(0, gateway.lastIndexOf(':'));
+        }
+
+        try {
+            if (standby) {
+                // 주 서버가 사라질 때까지 대기한 뒤, 마지막 복제 상태를 체크포인트로 남기고 같은 포트로 시작
+                int replicationPort = Integer.parseInt(args[2]);
+                new Replication.Standby(replicationPort, checkpoint -> {
+                    if (checkpoint != null) {
+                        try {
+                            RoomCheckpoint.save(Paths.get("room-" + port + ".ckpt"), checkpoint);
+                        } catch (IOException e) {
+                            System.err.println("복제 상태 저장 실패: " + e.getMessage());
+                        }
+                    }
+                }).run();
+            }
+
+            startServerLogic(port);
+
+            if (options.containsKey("--replicate-to")) {
+                replicator = new Replication.Primary(options.get("--replicate-to"), Server::snapshotRoom);
+                replicator.start();
+                clock.scheduleAtFixedRate(() -> System.out.println("[복제] 최근 1분: " + replicator.metrics()),
+                        60, 60, TimeUnit.SECONDS);
+            }
+            if (gateway != null) {
+                registerWithGateway(gateway, advertised + ":" + port);
+            }
+        } catch (IOException e) {
+            System.err.println("서버 시작 실패: " + e.getMessage());
+        }
     }
 
+    private static void registerWithGateway(String gateway, String node) throws IOException {
+        int colon = gateway.lastIndexOf(':');
+        try (Socket admin = new Socket(gateway.substring(0, colon), Integer.parseInt(gateway.substring(colon + 1)));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(admin.getOutputStream(), StandardCharsets.UTF_8), true);
+             BufferedReader in = new BufferedReader(new InputStreamReader(admin.getInputStream(), StandardCharsets.UTF_8))) {
+            out.println("ADD " + node);
+            System.out.println("게이트웨이 등록: " + in.readLine());
+        }
+    }
+
+    /**
+     * [신규] 1초마다 호출. 사람이 1~3명이고 모두 준비된 상태로 BOT_FILL_TIMEOUT_SECONDS 가 지나면
+     * 봇으로 4명을 채워 게임을 시작한다.
+     */
+    private static synchronized void checkBotFill() {
+        if (currentPhase != GamePhase.WAITING) {
+            underfilledSeconds = 0;
+            return;
+        }
+
+        int humans = 0;
+        boolean allReady = true;
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("checkBotFill");
+        synchronized (clientHandlers) {
+            lockWait.acquired();
+            for (ClientHandler h : clientHandlers) {
+                humans++;
+                if (!h.isHost && !h.isReady) allReady = false;
+            }
+        }
+
+        if (humans == 0 || humans >= 4 || !allReady) {
+            underfilledSeconds = 0;
+            return;
+        }
+
+        if (++underfilledSeconds < BOT_FILL_TIMEOUT_SECONDS) {
+            return;
+        }
+        underfilledSeconds = 0;
+
+        lockWait = GameEvents.LockWait.start("checkBotFill");
+        synchronized (clientHandlers) {
+            lockWait.acquired();
+            while (clientHandlers.size() < 4) {
+                ClientHandler bot = ClientHandler.newBot();
+                clientHandlers.add(bot);
+                broadcast("SYSTEM:" + bot.name + "(P" + bot.playerNumber + ") 봇이 빈 자리를 채웠습니다.");
+            }
+        }
+        System.out.println("대기 시간이 길어 봇으로 인원을 채워 게임을 시작합니다.");
+        beginGame(new ArrayList<>(clientHandlers));
+    }
 
     private static synchronized void assignNewHost() {
         if (currentHost != null) {
@@ -98,7 +764,9 @@ public class Server {
         }
 
         ClientHandler newHost = null;
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("assignNewHost");
         synchronized (clientHandlers) {
+            lockWait.acquired();
             if (clientHandlers.isEmpty()) {
                 return;
             }
@@ -163,6 +831,41 @@ public class Server {
             return;
         }
 
+        beginGame(new ArrayList<>(clientHandlers));
+    }
+
+    /**
+     * [신규] 매칭 대기열에서 묶인 플레이어로 게임 시작. 이미 게임 중이면 다시 대기열로 돌려보낸다.
+     */
+    private static synchronized void startMatchedGame(List<ClientHandler> players) {
+        List<ClientHandler> present = new ArrayList<>();
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("startMatchedGame");
+        synchronized (clientHandlers) {
+            lockWait.acquired();
+            for (ClientHandler h : players) {
+                if (clientHandlers.contains(h)) present.add(h);
+            }
+        }
+
+        if (currentPhase != GamePhase.WAITING || present.size() < MATCH_MIN_PLAYERS) {
+            // 돌려보내도 지금까지 기다린 시간은 이어 간다.
+            for (ClientHandler h : present) matchmaker.requeue(h);
+            return;
+        }
+
+        System.out.println("매칭 완료: " + present.size() + "명으로 게임을 자동 시작합니다.");
+        Set<ClientHandler> batch = beginBatch();
+        try {
+            beginGame(present);
+        } finally {
+            endBatch(batch);
+        }
+    }
+
+    /**
+     * 참가자에게 역할을 배정하고 첫 밤을 시작한다. 참가자가 아닌 로비 인원은 관전자가 된다.
+     */
+    private static synchronized void beginGame(List<ClientHandler> participants) {
         // [신규] 게임 시작 시 조사 결과 초기화
         investigatedRoles.clear();
 
@@ -174,51 +877,43 @@ public class Server {
         killingMafia = null;
         broadcast("START_GAME");
 
-        List<ClientHandler> handlersList = new ArrayList<>(clientHandlers);
-        Collections.shuffle(handlersList);
-
-        int numPlayers = handlersList.size();
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("beginGame");
+        synchronized (clientHandlers) {
+            lockWait.acquired();
+            for (ClientHandler handler : clientHandlers) {
+                matchmaker.cancel(handler);
+                if (!participants.contains(handler)) {
+                    handler.status = PlayerStatus.DEAD;
+                    handler.sendMessage("SYSTEM:이번 게임에는 관전자로 참여합니다.");
+                    handler.sendMessage("YOU_DIED");
+                }
+            }
+        }
 
-        int numMafias = (numPlayers >= 6) ? 2 : 1;
-        int numPolice = 1;
-        int numDoctors = 1;
+        List<ClientHandler> handlersList = new ArrayList<>(participants);
+        Collections.shuffle(handlersList, random);
 
-        int currentIndex = 0;
+        List<String> deck = GameRules.roleDeck(handlersList.size());
 
         System.out.println("--- 직업 배정 시작 ---");
-        for (int i = 0; i < numMafias; i++) {
-            ClientHandler handler = handlersList.get(currentIndex);
-            handler.role = Role.MAFIA;
-            handler.sendMessage("ROLE:MAFIA");
-            handler.sendMessage("SYSTEM:[역할] 당신은 'MAFIA'입니다.");
-            System.out.println("마피아: P" + handler.playerNumber + " (" + handler.name + ")");
-            currentIndex++;
-        }
-
-        if (currentIndex < numPlayers) {
-            ClientHandler police = handlersList.get(currentIndex);
-            police.role = Role.POLICE;
-            police.sendMessage("ROLE:POLICE");
-            police.sendMessage("SYSTEM:[역할] 당신은 'POLICE'입니다.");
-            System.out.println("경찰: P" + police.playerNumber + " (" + police.name + ")");
-            currentIndex++;
-        }
-
-        if (currentIndex < numPlayers) {
-            ClientHandler doctor = handlersList.get(currentIndex);
-            doctor.role = Role.DOCTOR;
-            doctor.sendMessage("ROLE:DOCTOR");
-            doctor.sendMessage("SYSTEM:[역할] 당신은 'DOCTOR'입니다.");
-            System.out.println("의사: P" + doctor.playerNumber + " (" + doctor.name + ")");
-            currentIndex++;
-        }
-
-        while (currentIndex < numPlayers) {
-            ClientHandler handler = handlersList.get(currentIndex);
-            handler.role = Role.CITIZEN;
-            handler.sendMessage("ROLE:CITIZEN");
-            handler.sendMessage("SYSTEM:[역할] 당신은 'CITIZEN'입니다.");
-            currentIndex++;
+        for (int i = 0; i < deck.size(); i++) {
+            ClientHandler handler = handlersList.get(i);
+            handler.role = Role.valueOf(deck.get(i));
+            handler.sendMessage("ROLE:" + handler.role);
+            handler.sendMessage("SYSTEM:[역할] 당신은 '" + handler.role + "'입니다.");
+            switch (handler.role) {
+                case MAFIA:
+                    System.out.println("마피아: P" + handler.playerNumber + " (" + handler.name + ")");
+                    break;
+                case POLICE:
+                    System.out.println("경찰: P" + handler.playerNumber + " (" + handler.name + ")");
+                    break;
+                case DOCTOR:
+                    System.out.println("의사: P" + handler.playerNumber + " (" + handler.name + ")");
+                    break;
+                default:
+                    break;
+            }
         }
         System.out.println("--- 직업 배정 완료 ---");
 
@@ -229,161 +924,171 @@ public class Server {
     }
 
     private static void scheduleDayNightTimer() {
-        phaseScheduler.shutdownNow();
-        phaseScheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduleDayNightTimer(PHASE_TIME_SECONDS);
+    }
 
-        currentPhaseTimeLeft = PHASE_TIME_SECONDS;
+    private static void scheduleDayNightTimer(long delaySeconds) {
+        if (phaseTask != null) {
+            phaseTask.cancel();
+        }
 
-        phaseScheduler.schedule(() -> {
-            synchronized (clientHandlers) {
-                if (currentPhase == GamePhase.WAITING) {
-                    return;
-                }
+        currentPhaseTimeLeft = delaySeconds;
+        long dueNanos = clock.nanoTime() + TimeUnit.SECONDS.toNanos(delaySeconds);
 
-                if (currentPhase == GamePhase.DAY) {
-                    tallyVotes();
-                    if (currentPhase == GamePhase.WAITING) {
-                        return;
-                    }
+        phaseTask = clock.schedule(() -> {
+            GameEvents.PhaseTransition event = new GameEvents.PhaseTransition();
+            event.begin();
+            long lateness = clock.nanoTime() - dueNanos;
+            GamePhase from = currentPhase;
+            Set<ClientHandler> batch = beginBatch();
+            try {
+                advancePhase();
+            } finally {
+                endBatch(batch);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.from = from.name();
+                    event.to = currentPhase.name();
+                    event.scheduledDelay = TimeUnit.SECONDS.toMillis(delaySeconds);
+                    event.lateness = lateness;
+                    event.commit();
+                }
+            }
+        }, delaySeconds, TimeUnit.SECONDS);
+    }
 
-                    currentPhase = GamePhase.NIGHT;
-                    nightKillTarget = null;
-                    nightSaveTarget = null;
-                    nightInvestigateUser = null;
-                    broadcast("SYSTEM:밤이 되었습니다. 능력을 사용할 대상을 지목하세요.");
+    /**
+     * 낮/밤 전환. 락 순서는 다른 경로와 같이 Server.class -> clientHandlers 로 잡는다.
+     */
+    private static synchronized void advancePhase() {
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("advancePhase");
+        synchronized (clientHandlers) {
+            lockWait.acquired();
+            if (currentPhase == GamePhase.WAITING) {
+                return;
+            }
 
-                } else if (currentPhase == GamePhase.NIGHT) {
-                    currentPhase = GamePhase.DAY;
+            if (currentPhase == GamePhase.DAY) {
+                tallyVotes();
+                if (currentPhase == GamePhase.WAITING) {
+                    return;
+                }
 
-                    if (nightKillTarget != null) {
-                        if (nightKillTarget != nightSaveTarget) {
-                            nightKillTarget.status = PlayerStatus.DEAD;
-                            broadcast("SYSTEM:지난 밤, " + nightKillTarget.name + "(P" + nightKillTarget.playerNumber + ") 님이 마피아에게 살해당했습니다.");
-                            nightKillTarget.sendMessage("YOU_DIED");
-                        } else {
-                            broadcast("SYSTEM:지난 밤, 의사의 활약으로 누군가가 기적적으로 살아났습니다!");
-                        }
+                currentPhase = GamePhase.NIGHT;
+                nightKillTarget = null;
+                nightSaveTarget = null;
+                nightInvestigateUser = null;
+                broadcast("SYSTEM:밤이 되었습니다. 능력을 사용할 대상을 지목하세요.");
+
+            } else if (currentPhase == GamePhase.NIGHT) {
+                currentPhase = GamePhase.DAY;
+
+                ClientHandler victim = GameRules.nightVictim(nightKillTarget, nightSaveTarget);
+                if (nightKillTarget != null) {
+                    if (victim != null) {
+                        victim.status = PlayerStatus.DEAD;
+                        broadcast("SYSTEM:지난 밤, " + victim.name + "(P" + victim.playerNumber + ") 님이 마피아에게 살해당했습니다.");
+                        victim.sendMessage("YOU_DIED");
                     } else {
-                        broadcast("SYSTEM:지난 밤, 아무 일도 일어나지 않았습니다.");
-                    }
-
-                    if (checkGameEnd()) {
-                        return;
+                        broadcast("SYSTEM:지난 밤, 의사의 활약으로 누군가가 기적적으로 살아났습니다!");
                     }
+                } else {
+                    broadcast("SYSTEM:지난 밤, 아무 일도 일어나지 않았습니다.");
+                }
 
-                    broadcast("SYSTEM:낮이 되었습니다. 토론 및 투표를 시작하세요. (/vote 번호)");
-                    votes.clear();
-                    broadcastPlayerList();
+                if (checkGameEnd()) {
+                    return;
                 }
-                scheduleDayNightTimer();
+
+                broadcast("SYSTEM:낮이 되었습니다. 토론 및 투표를 시작하세요. (/vote 번호)");
+                votes.clear();
+                broadcastPlayerList();
             }
-        }, PHASE_TIME_SECONDS, TimeUnit.SECONDS);
+            scheduleDayNightTimer();
+        }
     }
 
     private static synchronized void tallyVotes() {
-        Map<ClientHandler, Integer> voteTally = new HashMap<>();
-        int livingPlayers = 0;
+        GameRules.VoteResult<ClientHandler> result;
 
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("tallyVotes");
         synchronized (clientHandlers) {
+            lockWait.acquired();
+            int livingPlayers = 0;
             for (ClientHandler h : clientHandlers) {
                 if (h.status == PlayerStatus.ALIVE) {
                     livingPlayers++;
                 }
             }
-            for (Map.Entry<ClientHandler, ClientHandler> entry : votes.entrySet()) {
-                if (entry.getKey().status == PlayerStatus.ALIVE && entry.getValue().status == PlayerStatus.ALIVE) {
-                    voteTally.put(entry.getValue(), voteTally.getOrDefault(entry.getValue(), 0) + 1);
-                }
-            }
+            result = GameRules.tally(votes, h -> h.status == PlayerStatus.ALIVE, livingPlayers);
         }
 
-        if (voteTally.isEmpty()) {
-            broadcast("SYSTEM:아무도 투표하지 않아 처형이 없습니다.");
-            return;
+        switch (result.outcome) {
+            case NO_VOTES:
+                broadcast("SYSTEM:아무도 투표하지 않아 처형이 없습니다.");
+                break;
+            case TIE:
+                broadcast("SYSTEM:동점표(" + result.maxVotes + "표)가 나와 투표가 무효 처리되었습니다.");
+                break;
+            case EXECUTED:
+                ClientHandler personToExecute = result.target;
+                personToExecute.status = PlayerStatus.DEAD;
+                broadcast("SYSTEM:투표 결과, " + personToExecute.name + "(P" + personToExecute.playerNumber + ") 님이 과반수(" + result.maxVotes + "표) 득표로 처형당했습니다.");
+                personToExecute.sendMessage("YOU_DIED");
+                checkGameEnd();
+                broadcastPlayerList();
+                break;
+            default:
+                broadcast("SYSTEM:투표가 과반수(" + result.majorityThreshold + "표)에 미치지 못해 (" + result.maxVotes + "표) 처형이 없습니다.");
+                break;
         }
+    }
 
-        int maxVotes = Collections.max(voteTally.values());
-        List<ClientHandler> tiedPlayers = new ArrayList<>();
-        for (Map.Entry<ClientHandler, Integer> entry : voteTally.entrySet()) {
-            if (entry.getValue() == maxVotes) {
-                tiedPlayers.add(entry.getKey());
-            }
-        }
+    public static synchronized void handleVote(ClientHandler voter, int targetNumber) {
 
-        if (tiedPlayers.size() > 1) {
-            broadcast("SYSTEM:동점표(" + maxVotes + "표)가 나와 투표가 무효 처리되었습니다.");
+        if (voter.playerNumber == targetNumber) {
+            voter.sendMessage("SYSTEM:자신에게 투표할 수 없습니다.");
             return;
         }
+        ClientHandler target = getPlayerByNumber(targetNumber);
 
-        ClientHandler personToExecute = tiedPlayers.get(0);
-        int majorityThreshold = (livingPlayers / 2) + 1;
-
-        if (maxVotes >= majorityThreshold) {
-            personToExecute.status = PlayerStatus.DEAD;
-            broadcast("SYSTEM:투표 결과, " + personToExecute.name + "(P" + personToExecute.playerNumber + ") 님이 과반수(" + maxVotes + "표) 득표로 처형당했습니다.");
-            personToExecute.sendMessage("YOU_DIED");
-            checkGameEnd();
-            broadcastPlayerList();
+        if (target == null) {
+            voter.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
+        } else if (target.status == PlayerStatus.DEAD) {
+            voter.sendMessage("SYSTEM:이미 죽은 플레이어에게 투표할 수 없습니다.");
         } else {
-            broadcast("SYSTEM:투표가 과반수(" + majorityThreshold + "표)에 미치지 못해 (" + maxVotes + "표) 처형이 없습니다.");
+            votes.put(voter, target);
+            voter.sendMessage("SYSTEM:P" + target.playerNumber + " (" + target.name + ") 님에게 투표했습니다.");
         }
     }
 
-    public static synchronized void handleVote(ClientHandler voter, String command) {
-        try {
-            int targetNumber = Integer.parseInt(command.substring(6).trim());
-
-            if (voter.playerNumber == targetNumber) {
-                voter.sendMessage("SYSTEM:자신에게 투표할 수 없습니다.");
-                return;
-            }
-            ClientHandler target = getPlayerByNumber(targetNumber);
-
-            if (target == null) {
-                voter.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
-            } else if (target.status == PlayerStatus.DEAD) {
-                voter.sendMessage("SYSTEM:이미 죽은 플레이어에게 투표할 수 없습니다.");
-            } else {
-                votes.put(voter, target);
-                voter.sendMessage("SYSTEM:P" + target.playerNumber + " (" + target.name + ") 님에게 투표했습니다.");
-            }
-        } catch (Exception e) {
-            voter.sendMessage("SYSTEM:잘못된 명령어입니다. 예: /vote 2");
-        }
-    }
-
-    public static synchronized void handleKillCommand(ClientHandler mafia, String command) {
+    public static synchronized void handleKillCommand(ClientHandler mafia, int targetNumber) {
         if (currentPhase != GamePhase.NIGHT) {
             mafia.sendMessage("SYSTEM:낮에는 죽일 수 없습니다.");
             return;
         }
 
-        try {
-            int targetNumber = Integer.parseInt(command.substring(6).trim());
-            ClientHandler target = getPlayerByNumber(targetNumber);
-
-            if (target == null) {
-                mafia.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
-            } else if (PlayerStatus.DEAD == target.status) {
-                mafia.sendMessage("SYSTEM:이미 죽은 플레이어입니다.");
-            } else if (target.role == Role.MAFIA) {
-                mafia.sendMessage("SYSTEM:동료 마피아를 죽일 수 없습니다.");
-            } else {
-                nightKillTarget = target;
-                killingMafia = mafia;
+        ClientHandler target = getPlayerByNumber(targetNumber);
+
+        if (target == null) {
+            mafia.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
+        } else if (PlayerStatus.DEAD == target.status) {
+            mafia.sendMessage("SYSTEM:이미 죽은 플레이어입니다.");
+        } else if (target.role == Role.MAFIA) {
+            mafia.sendMessage("SYSTEM:동료 마피아를 죽일 수 없습니다.");
+        } else {
+            nightKillTarget = target;
+            killingMafia = mafia;
 
-                // [신규] 모든 클라이언트에게 마크 정보를 전송
-                broadcast("MARK_TARGET:P" + target.playerNumber);
+            // [신규] 모든 클라이언트에게 마크 정보를 전송
+            broadcast("MARK_TARGET:P" + target.playerNumber);
 
-                String notification = "SYSTEM:[마피아 알림] " + mafia.name + "(P" + mafia.playerNumber + ") 님이 P" + target.playerNumber + " (" + target.name + ") 님을 처형 대상으로 지목했습니다.";
-                broadcastToMafia(notification);
-            }
-        } catch (Exception e) {
-            mafia.sendMessage("SYSTEM:잘못된 명령어입니다. 예: /kill 2");
+            String notification = "SYSTEM:[마피아 알림] " + mafia.name + "(P" + mafia.playerNumber + ") 님이 P" + target.playerNumber + " (" + target.name + ") 님을 처형 대상으로 지목했습니다.";
+            broadcastToMafia(notification);
         }
     }
 
-    public static synchronized void handleInvestigate(ClientHandler police, String command) {
+    public static synchronized void handleInvestigate(ClientHandler police, int targetNumber) {
         if (currentPhase != GamePhase.NIGHT) {
             police.sendMessage("SYSTEM:낮에는 조사할 수 없습니다.");
             return;
@@ -394,67 +1099,59 @@ public class Server {
             return;
         }
 
-        try {
-            int targetNumber = Integer.parseInt(command.substring(6).trim());
-            ClientHandler target = getPlayerByNumber(targetNumber);
+        ClientHandler target = getPlayerByNumber(targetNumber);
 
-            if (target == null) {
-                police.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
-            } else if (target.status == PlayerStatus.DEAD) {
-                police.sendMessage("SYSTEM:이미 죽은 플레이어입니다.");
-            } else {
-                String roleResult = "";
+        if (target == null) {
+            police.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
+        } else if (target.status == PlayerStatus.DEAD) {
+            police.sendMessage("SYSTEM:이미 죽은 플레이어입니다.");
+        } else {
+            String roleResult = "";
 
-                if (target.role == Role.MAFIA) {
-                    police.sendMessage("SYSTEM:[조사결과] P" + target.playerNumber + " 님은 [마피아] 입니다.");
-                    roleResult = "MAFIA";
-                } else if (target.role == Role.POLICE) {
-                    police.sendMessage("SYSTEM:본인은 조사할 수 없습니다.");
-                    return;
-                } else {
-                    police.sendMessage("SYSTEM:[조사결과] P" + target.playerNumber + " 님은 [시민] 입니다.");
-                    roleResult = "CITIZEN";
-                }
+            if (target.role == Role.MAFIA) {
+                police.sendMessage("SYSTEM:[조사결과] P" + target.playerNumber + " 님은 [마피아] 입니다.");
+                roleResult = "MAFIA";
+            } else if (target.role == Role.POLICE) {
+                police.sendMessage("SYSTEM:본인은 조사할 수 없습니다.");
+                return;
+            } else {
+                police.sendMessage("SYSTEM:[조사결과] P" + target.playerNumber + " 님은 [시민] 입니다.");
+                roleResult = "CITIZEN";
+            }
 
-                nightInvestigateUser = police;
+            nightInvestigateUser = police;
 
-                // [신규] 조사 결과를 클라이언트에게 전송 (마크용)
-                broadcast("MARK_ROLE:P" + target.playerNumber + ":" + roleResult);
+            // [신규] 조사 결과를 클라이언트에게 전송 (마크용)
+            broadcast("MARK_ROLE:P" + target.playerNumber + ":" + roleResult);
 
-            }
-        } catch (Exception e) {
-            police.sendMessage("SYSTEM:잘못된 명령어입니다. 예: /investigate 2");
         }
     }
 
-    public static synchronized void handleSave(ClientHandler doctor, String command) {
+    public static synchronized void handleSave(ClientHandler doctor, int targetNumber) {
         if (currentPhase != GamePhase.NIGHT) {
             doctor.sendMessage("SYSTEM:낮에는 살릴 수 없습니다.");
             return;
         }
 
-        try {
-            int targetNumber = Integer.parseInt(command.substring(6).trim());
-            ClientHandler target = getPlayerByNumber(targetNumber);
+        ClientHandler target = getPlayerByNumber(targetNumber);
 
-            if (target == null) {
-                doctor.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
-            } else if (target.status == PlayerStatus.DEAD) {
-                doctor.sendMessage("SYSTEM:이미 죽은 플레이어입니다.");
-            } else {
-                nightSaveTarget = target;
-                doctor.sendMessage("SYSTEM:P" + target.playerNumber + " (" + target.name + ") 님을 살리기로 결정했습니다.");
+        if (target == null) {
+            doctor.sendMessage("SYSTEM:존재하지 않는 플레이어 번호입니다.");
+        } else if (target.status == PlayerStatus.DEAD) {
+            doctor.sendMessage("SYSTEM:이미 죽은 플레이어입니다.");
+        } else {
+            nightSaveTarget = target;
+            doctor.sendMessage("SYSTEM:P" + target.playerNumber + " (" + target.name + ") 님을 살리기로 결정했습니다.");
 
-                // [신규] 모든 클라이언트에게 마크 정보를 전송
-                broadcast("MARK_TARGET:P" + target.playerNumber);
-            }
-        } catch (Exception e) {
-            doctor.sendMessage("SYSTEM:잘못된 명령어입니다. 예: /save 2");
+            // [신규] 모든 클라이언트에게 마크 정보를 전송
+            broadcast("MARK_TARGET:P" + target.playerNumber);
         }
     }
 
     private static ClientHandler getPlayerByNumber(int number) {
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("getPlayerByNumber");
         synchronized (clientHandlers) {
+            lockWait.acquired();
             for (ClientHandler handler : clientHandlers) {
                 if (handler.playerNumber == number) {
                     return handler;
@@ -465,65 +1162,127 @@ public class Server {
     }
 
     private static void broadcastToMafia(String message) {
-        synchronized (clientHandlers) {
-            for (ClientHandler handler : clientHandlers) {
-                if (handler.role == Role.MAFIA && handler.status == PlayerStatus.ALIVE) {
-                    handler.sendMessage(message);
+        OutboundFrame frame = OutboundFrame.of(message);
+        GameEvents.Broadcast event = GameEvents.Broadcast.start("mafia");
+        int fanOut = 0;
+        try {
+            GameEvents.LockWait lockWait = GameEvents.LockWait.start("broadcastToMafia");
+            synchronized (clientHandlers) {
+                lockWait.acquired();
+                for (ClientHandler handler : clientHandlers) {
+                    if (handler.role == Role.MAFIA && handler.status == PlayerStatus.ALIVE) {
+                        handler.sendFrame(frame);
+                        fanOut++;
+                    }
                 }
             }
+        } finally {
+            event.finish(message, frame, fanOut);
+            frame.release();
         }
     }
 
     private static void broadcastToMafiaExceptSender(String message, ClientHandler sender) {
-        synchronized (clientHandlers) {
-            for (ClientHandler handler : clientHandlers) {
-                if (handler != sender && handler.role == Role.MAFIA && handler.status == PlayerStatus.ALIVE) {
-                    handler.sendMessage(message);
+        OutboundFrame frame = OutboundFrame.of(message);
+        GameEvents.Broadcast event = GameEvents.Broadcast.start("mafia-others");
+        int fanOut = 0;
+        try {
+            GameEvents.LockWait lockWait = GameEvents.LockWait.start("broadcastToMafiaExceptSender");
+            synchronized (clientHandlers) {
+                lockWait.acquired();
+                for (ClientHandler handler : clientHandlers) {
+                    if (handler != sender && handler.role == Role.MAFIA && handler.status == PlayerStatus.ALIVE) {
+                        handler.sendFrame(frame);
+                        fanOut++;
+                    }
                 }
             }
+        } finally {
+            event.finish(message, frame, fanOut);
+            frame.release();
         }
     }
 
     private static void broadcastToDeadExceptSender(String message, ClientHandler sender) {
-        synchronized (clientHandlers) {
-            for (ClientHandler handler : clientHandlers) {
-                if (handler != sender && handler.status == PlayerStatus.DEAD) {
-                    handler.sendMessage(message);
+        OutboundFrame frame = OutboundFrame.of(message);
+        GameEvents.Broadcast event = GameEvents.Broadcast.start("dead-others");
+        int fanOut = 0;
+        try {
+            GameEvents.LockWait lockWait = GameEvents.LockWait.start("broadcastToDeadExceptSender");
+            synchronized (clientHandlers) {
+                lockWait.acquired();
+                for (ClientHandler handler : clientHandlers) {
+                    if (handler != sender && handler.status == PlayerStatus.DEAD) {
+                        handler.sendFrame(frame);
+                        fanOut++;
+                    }
                 }
             }
+        } finally {
+            event.finish(message, frame, fanOut);
+            frame.release();
         }
     }
 
     private static void broadcastExceptSenderToAll(String message, ClientHandler sender) {
-        synchronized (clientHandlers) {
-            for (ClientHandler handler : clientHandlers) {
-                if (handler != sender) {
-                    handler.sendMessage(message);
+        OutboundFrame frame = OutboundFrame.of(message);
+        GameEvents.Broadcast event = GameEvents.Broadcast.start("others");
+        int fanOut = 0;
+        try {
+            GameEvents.LockWait lockWait = GameEvents.LockWait.start("broadcastExceptSenderToAll");
+            synchronized (clientHandlers) {
+                lockWait.acquired();
+                for (ClientHandler handler : clientHandlers) {
+                    if (handler != sender) {
+                        handler.sendFrame(frame);
+                        fanOut++;
+                    }
                 }
             }
+        } finally {
+            event.finish(message, frame, fanOut);
+            frame.release();
         }
     }
 
 
+    /**
+     * 메시지는 한 번만 인코딩되고, 각 수신자에게는 같은 프레임의 참조만 넘어간다.
+     */
     private static void broadcast(String message) {
-        synchronized (clientHandlers) {
-            for (ClientHandler handler : clientHandlers) {
-                if (currentPhase == GamePhase.DAY || currentPhase == GamePhase.NIGHT) {
-                    if (message.startsWith("TIMER:") || handler.status == PlayerStatus.ALIVE || message.startsWith("SYSTEM:지난 밤") || message.startsWith("MARK_")) {
-                        handler.sendMessage(message);
-                    } else if (handler.status == PlayerStatus.DEAD && message.startsWith("SYSTEM:")) {
-                        handler.sendMessage(message);
+        OutboundFrame frame = OutboundFrame.of(message);
+        GameEvents.Broadcast event = GameEvents.Broadcast.start("all");
+        int fanOut = 0;
+        try {
+            GameEvents.LockWait lockWait = GameEvents.LockWait.start("broadcast");
+            synchronized (clientHandlers) {
+                lockWait.acquired();
+                for (ClientHandler handler : clientHandlers) {
+                    if (currentPhase == GamePhase.DAY || currentPhase == GamePhase.NIGHT) {
+                        if (message.startsWith("TIMER:") || handler.status == PlayerStatus.ALIVE || message.startsWith("SYSTEM:지난 밤") || message.startsWith("MARK_")) {
+                            handler.sendFrame(frame);
+                            fanOut++;
+                        } else if (handler.status == PlayerStatus.DEAD && message.startsWith("SYSTEM:")) {
+                            handler.sendFrame(frame);
+                            fanOut++;
+                        }
+                    } else {
+                        handler.sendFrame(frame);
+                        fanOut++;
                     }
-                } else {
-                    handler.sendMessage(message);
                 }
             }
+        } finally {
+            event.finish(message, frame, fanOut);
+            frame.release();
         }
     }
 
     private static void broadcastPlayerList() {
         StringBuilder sb = new StringBuilder();
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("broadcastPlayerList");
         synchronized (clientHandlers) {
+            lockWait.acquired();
             List<ClientHandler> sortedHandlers = new ArrayList<>(clientHandlers);
             Collections.sort(sortedHandlers, Comparator.comparingInt(h -> h.playerNumber));
 
@@ -553,7 +1312,9 @@ public class Server {
         int mafiaAlive = 0;
         int citizensAlive = 0;
 
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("checkGameEnd");
         synchronized (clientHandlers) {
+            lockWait.acquired();
             for (ClientHandler handler : clientHandlers) {
                 if (handler.status == PlayerStatus.ALIVE) {
                     if (handler.role == Role.MAFIA) {
@@ -567,24 +1328,26 @@ public class Server {
 
         System.out.println("게임 상태 확인: 마피아(" + mafiaAlive + "), 시민팀(" + citizensAlive + ")");
 
-        if (mafiaAlive == 0) {
-            broadcast("SYSTEM:모든 마피아가 사망했습니다. 시민의 승리입니다!");
-            endGame();
-            return true;
-        }
-
-        if (mafiaAlive >= citizensAlive) {
-            broadcast("SYSTEM:마피아의 수가 시민의 수와 같거나 많아졌습니다. 마피아의 승리입니다!");
-            endGame();
-            return true;
+        switch (GameRules.winner(mafiaAlive, citizensAlive)) {
+            case CITIZENS:
+                broadcast("SYSTEM:모든 마피아가 사망했습니다. 시민의 승리입니다!");
+                endGame(false);
+                return true;
+            case MAFIA:
+                broadcast("SYSTEM:마피아의 수가 시민의 수와 같거나 많아졌습니다. 마피아의 승리입니다!");
+                endGame(true);
+                return true;
+            default:
+                return false;
         }
-
-        return false;
     }
 
-    private static synchronized void endGame() {
+    private static synchronized void endGame(boolean mafiaWon) {
         System.out.println("게임 종료.");
-        phaseScheduler.shutdownNow();
+        if (phaseTask != null) {
+            phaseTask.cancel();
+            phaseTask = null;
+        }
 
         currentPhase = GamePhase.WAITING;
         currentPhaseTimeLeft = 0;
@@ -592,21 +1355,57 @@ public class Server {
         // [신규] 게임 종료 시 조사 결과 초기화
         investigatedRoles.clear();
 
+        GameEvents.LockWait lockWait = GameEvents.LockWait.start("endGame");
         synchronized (clientHandlers) {
+            lockWait.acquired();
             for (ClientHandler handler : clientHandlers) {
+                // [신규] 전적 기록 (write-behind 캐시에만 반영되므로 블로킹 없음)
+                if (handler.role != Role.NONE && handler.bot == null) {
+                    boolean won = (handler.role == Role.MAFIA) == mafiaWon;
+                    playerStore.recordGame(handler.name, handler.role.name(), won);
+                }
                 handler.role = Role.NONE;
                 handler.status = PlayerStatus.ALIVE;
                 handler.isReady = handler.isHost;
                 handler.sendMessage("GAME_OVER");
             }
+            // [신규] 복구 후 끝내 돌아오지 않은 좌석과 빈자리를 채웠던 봇 정리
+            clientHandlers.removeIf(h -> h.isDetached() || h.bot != null);
+            if (currentHost != null && !clientHandlers.contains(currentHost)) {
+                // 복구된 방장 좌석이 끝내 돌아오지 않았다.
+                assignNewHost();
+            }
             broadcastPlayerList();
         }
     }
 
     private static class ClientHandler implements Runnable {
-        private Socket socket;
-        private PrintWriter out;
-        private BufferedReader in;
+        private volatile Socket socket;
+        private volatile SocketChannel channel;
+        private LineReader in;
+
+        private BotPlayer bot = null;
+
+        // [신규] 이 연결이 실제로 조종하는 좌석. 체크포인트에서 복구된 좌석을 되찾으면 그 좌석을 가리킨다.
+        private ClientHandler seat = this;
+
+        // 아직 쓰지 않은 송신 프레임. 브로드캐스트는 같은 프레임을 여러 큐에 넣는다.
+        private final Queue<OutboundFrame> outbound = new ConcurrentLinkedQueue<>();
+        private final Object writeLock = new Object();
+        // [신규] 송신 스레드에 flush 가 예약되어 있는지
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+        // 압축을 협상한 연결만 가진다 (writeLock 으로 보호). 연결이 끝날 때 end 한다.
+        private Deflater deflater;
+        // [신규] WebSocket 연결이면 송신 한 줄을 텍스트 프레임 하나로 감싼다 (writeLock 으로 보호, 채널과 함께 이동).
+        private boolean webSocketFraming;
+        // [신규] 하트비트 휠이 남긴 WebSocket ping. 다음 flush 가 본문 앞에 붙여 보낸다.
+        private volatile boolean pingPending;
+        private boolean joined = false;
+        // [신규] 이 연결에서 마지막으로 무언가를 받은 시각 (게임 시계 기준). 하트비트 휠이 읽는다.
+        private volatile long lastHeardMillis;
+        private WebSocketSession webSocket;
+        // [신규] 접속 허용 제어를 거쳐 들어온 연결의 상대 주소. 자리는 좌석이 아니라 이 연결(스레드)이 돌려준다.
+        private final InetAddress admittedAddress;
 
         public int playerNumber;
         public String name;
@@ -614,135 +1413,702 @@ public class Server {
         public PlayerStatus status = PlayerStatus.ALIVE;
         public boolean isHost = false;
         public boolean isReady = false;
+        // [신규] 입장할 때 이 연결에만 보내는 좌석 토큰. 서버가 재시작되면 이 토큰을 보낸 연결만 좌석을 이어받는다.
+        String seatToken = newSeatToken();
+
+        // [신규] 줄마다 덮어쓰는 해석 결과 (이 좌석을 조종하는 스레드 하나만 쓴다)
+        private final CommandParser.Command command = new CommandParser.Command();
+
+        private final TokenBucket chatBucket = new TokenBucket(3, 5, Server::clockNanos);
+        private final TokenBucket commandBucket = new TokenBucket(5, 10, Server::clockNanos);
+        private boolean throttleNotified = false;
+
+        /**
+         * [신규] 해석된 명령 하나를 처리하는 동작. DISPATCH 표에서 Op 순서로 찾는다.
+         */
+        private interface CommandAction {
+            void run(ClientHandler handler, CommandParser.Command command);
+        }
+
+        // [신규] Op 순서대로 놓인 처리기 표. 캡처 없는 람다라 호출할 때 객체가 생기지 않는다.
+        private static final CommandAction[] DISPATCH = dispatchTable();
+
+        private static CommandAction[] dispatchTable() {
+            CommandAction[] table = new CommandAction[CommandParser.Op.values().length];
+            Arrays.fill(table, (CommandAction) (h, c) -> h.sendMessage("SYSTEM:알 수 없는 명령어입니다."));
+            table[CommandParser.Op.EMPTY.ordinal()] = (h, c) -> { };
+            table[CommandParser.Op.TIMER.ordinal()] = (h, c) -> { };
+            table[CommandParser.Op.PONG.ordinal()] = (h, c) -> { };
+            table[CommandParser.Op.NICKNAME.ordinal()] = (h, c) -> h.handleNickname(c.argument());
+            table[CommandParser.Op.COMPRESS.ordinal()] = (h, c) -> h.handleCompress(c.argument());
+            table[CommandParser.Op.RECLAIM.ordinal()] = (h, c) -> h.reclaimSeat(c.argument());
+            table[CommandParser.Op.START.ordinal()] = (h, c) -> {
+                System.out.println("P" + h.playerNumber + "로부터 /start 명령 수신");
+                startGame(h);
+            };
+            table[CommandParser.Op.READY.ordinal()] = (h, c) -> {
+                System.out.println("P" + h.playerNumber + "로부터 /ready 명령 수신");
+                handleReady(h);
+            };
+            table[CommandParser.Op.QUEUE.ordinal()] = (h, c) -> h.handleQueue();
+            table[CommandParser.Op.VOTE.ordinal()] = (h, c) -> h.handleVoteCommand(c);
+            table[CommandParser.Op.SKILL.ordinal()] = (h, c) -> h.useSkill(c, null);
+            table[CommandParser.Op.KILL.ordinal()] = (h, c) -> h.useSkill(c, Role.MAFIA);
+            table[CommandParser.Op.SAVE.ordinal()] = (h, c) -> h.useSkill(c, Role.DOCTOR);
+            table[CommandParser.Op.INVESTIGATE.ordinal()] = (h, c) -> h.useSkill(c, Role.POLICE);
+            table[CommandParser.Op.CHAT.ordinal()] = (h, c) -> h.handleChat(c.argument());
+            table[CommandParser.Op.CHAT_MAFIA.ordinal()] = (h, c) -> h.handleChat(c.argument());
+            table[CommandParser.Op.CHAT_DEAD.ordinal()] = (h, c) -> h.handleChat(c.argument());
+            return table;
+        }
+
+        /**
+         * 체크포인트에서 복구된, 아직 연결이 붙지 않은 좌석.
+         */
+        ClientHandler(int playerNumber, String name) {
+            this.playerNumber = playerNumber;
+            this.name = name;
+            this.admittedAddress = null;
+        }
+
+        boolean isDetached() {
+            return channel == null && bot == null;
+        }
+
+        /**
+         * [신규] 소켓 없는 봇 좌석. 받은 메시지는 BotPlayer 로 가고, 봇의 명령은 사람과 같은 경로로 처리된다.
+         */
+        static ClientHandler newBot() {
+            int number = playerCounter.getAndIncrement();
+            ClientHandler handler = new ClientHandler(number, "봇" + number);
+            handler.isReady = true;
+            handler.bot = new BotPlayer(number, handler.name, line -> {
+                Set<ClientHandler> batch = beginBatch();
+                try {
+                    handler.handleLine(line);
+                } finally {
+                    endBatch(batch);
+                }
+            });
+            return handler;
+        }
 
-        public ClientHandler(Socket socket) {
-            this.socket = socket;
+        public ClientHandler(SocketChannel channel) {
+            this(channel, false);
+        }
+
+        public ClientHandler(SocketChannel channel, boolean webSocket) {
+            this(channel, webSocket, null);
+        }
+
+        // admittedAddress 가 있으면 연결이 끝날 때 접속 허용 자리를 돌려준다.
+        ClientHandler(SocketChannel channel, boolean webSocket, InetAddress admittedAddress) {
+            this.channel = channel;
+            this.socket = channel.socket();
+            this.webSocketFraming = webSocket;
+            this.admittedAddress = admittedAddress;
             this.playerNumber = playerCounter.getAndIncrement();
             this.name = "플레이어 " + this.playerNumber;
         }
 
         public void sendMessage(String message) {
-            out.println(message);
+            OutboundFrame frame = OutboundFrame.of(message);
+            sendFrame(frame);
+            frame.release();
         }
 
-        @Override
-        public void run() {
-            try {
-                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                out = new PrintWriter(socket.getOutputStream(), true);
+        void sendFrame(OutboundFrame frame) {
+            if (bot != null) {
+                bot.onMessage(frame.text());
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            outbound.offer(frame.retain());
+            sentMessages.incrementAndGet();
+
+            Set<ClientHandler> batch = pendingFlush.get();
+            if (batch != null) {
+                batch.add(this);
+            } else if (onClockThread.get() != null) {
+                flushLater();
+            } else {
+                flush();
+            }
+        }
 
-                synchronized (clientHandlers) {
-                    clientHandlers.add(this);
-
-                    if (currentHost == null) {
-                        this.isHost = true;
-                        this.isReady = true;
-                        currentHost = this;
-                        sendMessage("SYSTEM:HOST_GRANTED");
-                        broadcast("SYSTEM:P" + this.playerNumber + "(" + this.name + ") 님이 방장 권한을 획득했습니다.");
+        /**
+         * [신규] 송신 스레드에서 flush 한다. 이 연결의 flush 가 이미 예약되어 있거나 막혀 있으면 더 예약하지 않고,
+         * 그동안 쌓인 프레임은 그 flush 가 끝난 뒤 이어서 보낸다.
+         */
+        void flushLater() {
+            if (flushQueued.compareAndSet(false, true)) {
+                clockWriters.execute(this::drainQueued);
+            }
+        }
+
+        private void drainQueued() {
+            flush();
+            flushQueued.set(false);
+            if ((!outbound.isEmpty() || pingPending) && channel != null) {
+                flushLater();
+            }
+        }
+
+        /**
+         * [신규] 큐에만 넣고 flush 하지 않는다. 보내는 것은 flushLater 나 다음 flush 다.
+         */
+        void queueMessage(String message) {
+            if (bot != null || channel == null) {
+                return;
+            }
+            outbound.offer(OutboundFrame.of(message));
+            sentMessages.incrementAndGet();
+        }
+
+        /**
+         * 쌓인 프레임을 한 번의 gathering write 로 내보낸다. 압축 연결이면 배치 끝에서 SYNC_FLUSH 한다.
+         */
+        void flush() {
+            synchronized (writeLock) {
+                List<OutboundFrame> frames = new ArrayList<>();
+                OutboundFrame f;
+                while ((f = outbound.poll()) != null) {
+                    frames.add(f);
+                }
+                boolean ping = webSocketFraming && pingPending;
+                if (frames.isEmpty() && !ping) {
+                    return;
+                }
+                pingPending = false;
+
+                try {
+                    if (deflater != null) {
+                        writeCompressed(frames);
                     } else {
-                        sendMessage("SYSTEM:GUEST_GRANTED");
+                        writeRaw(frames, ping);
+                    }
+                    sentFlushes.incrementAndGet();
+                } catch (IOException e) {
+                    // 수신 루프 쪽에서 연결 종료를 처리하도록 소켓만 닫는다.
+                    try { channel.close(); } catch (IOException ignored) {}
+                } finally {
+                    for (OutboundFrame frame : frames) {
+                        frame.release();
                     }
                 }
+            }
+        }
 
-                sendMessage("PLAYER_NUM:" + this.playerNumber);
+        private void writeRaw(List<OutboundFrame> frames, boolean ping) throws IOException {
+            int first = ping ? 1 : 0;
+            ByteBuffer[] views = new ByteBuffer[first + (webSocketFraming ? frames.size() * 2 : frames.size())];
+            long remaining = 0;
+            if (ping) {
+                // 브라우저는 제어 프레임 ping 에 pong 을 자동으로 돌려준다.
+                views[0] = WebSocketSession.frame(WebSocketSession.OP_PING, new byte[0]);
+                remaining += views[0].remaining();
+            }
+            for (int i = 0; i < frames.size(); i++) {
+                ByteBuffer view = frames.get(i).view();
+                if (webSocketFraming) {
+                    // 줄 끝 '\n' 을 뺀 본문 앞에 프레임 머리만 붙인다. 본문은 공유 버퍼 그대로.
+                    view.limit(view.limit() - 1);
+                    ByteBuffer header = WebSocketSession.textHeader(view.remaining());
+                    views[first + i * 2] = header;
+                    views[first + i * 2 + 1] = view;
+                    remaining += header.remaining();
+                } else {
+                    views[first + i] = view;
+                }
+                remaining += view.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(views);
+            }
+        }
 
-                // [신규] 기존 조사 결과가 있다면 새로 접속한 클라이언트에게도 전송
-                synchronized (investigatedRoles) {
-                    for (Map.Entry<Integer, String> entry : investigatedRoles.entrySet()) {
-                        sendMessage("MARK_ROLE:P" + entry.getKey() + ":" + entry.getValue());
+        // 공유 프레임은 그대로 두고 이 연결의 DEFLATE 문맥에만 흘려 넣는다.
+        private void writeCompressed(List<OutboundFrame> frames) throws IOException {
+            long raw = 0;
+            long wire = 0;
+            for (OutboundFrame frame : frames) {
+                ByteBuffer view = frame.view();
+                raw += view.remaining();
+                deflater.setInput(view);
+                while (!deflater.needsInput()) {
+                    wire += deflateAndWrite(Deflater.NO_FLUSH);
+                }
+            }
+            // 배치 끝: 클라이언트가 지금까지 보낸 내용을 바로 풀 수 있게 한다.
+            int n;
+            do {
+                n = deflateAndWrite(Deflater.SYNC_FLUSH);
+                wire += n;
+            } while (n == DEFLATE_BUFFER_SIZE);
+
+            compressedMessages.addAndGet(frames.size());
+            compressedRawBytes.addAndGet(raw);
+            compressedWireBytes.addAndGet(wire);
+        }
+
+        private int deflateAndWrite(int flushMode) throws IOException {
+            ByteBuffer out = deflateBuffers.acquire();
+            try {
+                long start = System.nanoTime();
+                int n = deflater.deflate(out, flushMode);
+                compressNanos.addAndGet(System.nanoTime() - start);
+                out.flip();
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                return n;
+            } finally {
+                deflateBuffers.release(out);
+            }
+        }
+
+        /**
+         * 클라이언트의 압축 요청. 승인 줄까지는 평문으로 내보내고, 그 뒤의 모든 송신을 압축한다.
+         */
+        private void handleCompress(String method) {
+            if (channel == null) {
+                return;
+            }
+            if (!"DEFLATE".equals(method) || compressionLevel < 0 || webSocketFraming) {
+                sendMessage("COMPRESS_NO:" + method);
+                return;
+            }
+            synchronized (writeLock) {
+                if (deflater != null) {
+                    return;
+                }
+                // 이미 쌓인 프레임을 평문으로 먼저 내보낸 뒤 승인 줄을 직접 쓴다.
+                flush();
+                if (!writeDirect(ByteBuffer.wrap(("COMPRESS_OK:DEFLATE\n").getBytes(StandardCharsets.UTF_8)))) {
+                    return;
+                }
+                deflater = new Deflater(compressionLevel, true);
+            }
+            System.out.println("P" + playerNumber + " 송신 압축 시작 (DEFLATE 레벨 " + compressionLevel + ")");
+        }
+
+        /**
+         * 큐를 거치지 않고 채널에 바로 쓴다 (협상 응답, WebSocket 제어 프레임). 실패하면 채널을 닫고 false.
+         */
+        private boolean writeDirect(ByteBuffer bytes) {
+            synchronized (writeLock) {
+                if (channel == null) {
+                    return false;
+                }
+                // 힙 버퍼를 그대로 쓰면 JDK 가 이 스레드에 임시 direct 버퍼 캐시를 만든다. 작은 응답은 풀 버퍼로 옮겨 쓴다.
+                ByteBuffer direct = null;
+                if (!bytes.isDirect() && bytes.remaining() <= IO_BUFFER_SIZE) {
+                    direct = ioBuffers.acquire();
+                    bytes = direct.put(bytes).flip();
+                }
+                try {
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    return true;
+                } catch (IOException e) {
+                    try { channel.close(); } catch (IOException ignored) {}
+                    return false;
+                } finally {
+                    if (direct != null) {
+                        ioBuffers.release(direct);
                     }
                 }
+            }
+        }
 
-                String line;
-                while ((line = in.readLine()) != null) {
-                    final String message = line.trim();
+        private void endCompression() {
+            synchronized (writeLock) {
+                if (deflater != null) {
+                    deflater.end();
+                    deflater = null;
+                }
+            }
+        }
 
-                    if (message.isEmpty()) {
-                        continue;
+        /**
+         * 수신한 한 줄을 처리한다. 이 안에서 보낸 메시지는 호출부의 배치로 묶여 한 번에 flush 된다.
+         */
+        private void handleLine(String line) {
+            CommandParser.parse(line, command);
+            CommandParser.Op op = command.op;
+
+            if (op == CommandParser.Op.EMPTY || op == CommandParser.Op.TIMER || op == CommandParser.Op.PONG) {
+                return;
+            }
+
+            if (!allowMessage(op.isChat())) {
+                return;
+            }
+
+            if (status == PlayerStatus.DEAD && !op.allowedWhenDead) {
+                sendMessage("SYSTEM:당신은 죽었습니다. 채팅 외의 행동은 할 수 없습니다.");
+                return;
+            }
+
+            DISPATCH[op.ordinal()].run(this, command);
+        }
+
+        // [신규] 투표. 번호는 파서가 이미 숫자로 바꿔 두었다.
+        private void handleVoteCommand(CommandParser.Command c) {
+            if (currentPhase != GamePhase.DAY) {
+                sendMessage("SYSTEM:투표는 낮에만 할 수 있습니다.");
+                return;
+            }
+            if (!c.hasNumber) {
+                sendMessage("SYSTEM:잘못된 명령어입니다. 예: " + c.op.example);
+                return;
+            }
+            handleVote(this, c.number);
+        }
+
+        /**
+         * [신규] 능력 사용. /skill 은 자기 역할의 능력을 쓰고, /kill /save /investigate 는 그 역할일 때만 받는다.
+         */
+        private void useSkill(CommandParser.Command c, Role required) {
+            if (required != null && role != required) {
+                sendMessage("SYSTEM:당신의 역할로는 사용할 수 없는 명령어입니다.");
+                return;
+            }
+            if (currentPhase != GamePhase.NIGHT) {
+                sendMessage("SYSTEM:능력은 밤에만 사용할 수 있습니다.");
+                return;
+            }
+            if (role == Role.CITIZEN) {
+                sendMessage("SYSTEM:시민은 능력을 사용할 수 없습니다.");
+                return;
+            }
+            if (role == Role.NONE) {
+                return;
+            }
+            if (!c.hasNumber) {
+                sendMessage("SYSTEM:잘못된 명령어입니다. 예: " + c.op.example);
+                return;
+            }
+            switch (role) {
+                case POLICE:
+                    handleInvestigate(this, c.number);
+                    break;
+                case DOCTOR:
+                    handleSave(this, c.number);
+                    break;
+                case MAFIA:
+                    handleKillCommand(this, c.number);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void handleChat(String content) {
+            // [신규] 금칙어 필터는 락 밖에서 돌린다. 앞머리가 서버가 아는 내 닉네임("닉네임:")일 때만 그 뒤 본문만 검사하고,
+            // 그 밖에는 앞머리도 클라이언트가 보낸 글이므로 전체를 검사한다 ("CHAT:<금칙어>:x" 우회 방지).
+            String own = name + ":";
+            String chatMessage = content.startsWith(own)
+                    ? own + chatFilter.filter(content.substring(own.length()))
+                    : chatFilter.filter(content);
+
+            synchronized (Server.class) {
+
+                if (this.status == PlayerStatus.DEAD) {
+                    System.out.println("[사망자 채팅] " + chatMessage);
+                    broadcastToDeadExceptSender("CHAT_DEAD:" + chatMessage, this);
+                }
+                else {
+                    if (currentPhase == GamePhase.DAY || currentPhase == GamePhase.WAITING) {
+                        System.out.println("[" + currentPhase.name() + "] " + chatMessage);
+                        broadcastExceptSenderToAll("CHAT:" + chatMessage, this);
+                    } else if (currentPhase == GamePhase.NIGHT) {
+                        if (role == Role.MAFIA && status == PlayerStatus.ALIVE) {
+                            System.out.println("[밤-마피아] " + chatMessage);
+                            broadcastToMafiaExceptSender("CHAT_MAFIA:" + chatMessage, this);
+                        } else {
+                            System.out.println("[밤-시민팀 생존자] 메시지 차단");
+                            sendMessage("SYSTEM:밤에는 마피아만 대화 가능합니다.");
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * [신규] 하트비트 휠의 만료 처리. 최근에 받은 것이 있으면 남은 시간만큼 미루고, 조용하면 PING 을 보내고,
+         * idle 제한을 넘겼으면 소켓을 닫는다. 닫힌 소켓은 수신 루프를 끝내 평소 퇴장 경로(좌석 정리, 방장 재지정)를 탄다.
+         */
+        static long checkHeartbeat(ClientHandler connection, long nowMillis) {
+            long idle = nowMillis - connection.lastHeardMillis;
+            if (idle < heartbeatMillis) {
+                return heartbeatMillis - idle;
+            }
+            if (idle >= idleTimeoutMillis) {
+                connection.reap(idle);
+                return 0;
+            }
+            // [수정] 이 스레드는 게임 시계 스레드다. 읽지 않는 상대에게 막히지 않도록 직접 쓰지 않고
+            // 큐에 넣은 뒤 송신 스레드에 flush 를 넘긴다.
+            if (connection.webSocket != null) {
+                connection.seat.pingPending = true;
+            } else {
+                connection.seat.queueMessage("PING:" + nowMillis);
+            }
+            connection.seat.flushLater();
+            pingsSent.incrementAndGet();
+            return Math.min(heartbeatMillis, idleTimeoutMillis - idle);
+        }
+
+        private void reap(long idleMillis) {
+            reapedConnections.incrementAndGet();
+            reapedTotal.incrementAndGet();
+            System.out.println("P" + seat.playerNumber + " (" + seat.name + ") " + idleMillis / 1000 + "초 동안 응답이 없어 연결을 정리합니다.");
+            // 채널 닫기는 쓰지 않으므로 막히지 않는다. 송신 중에 막혀 있던 스레드는 예외로 풀려난다.
+            try {
+                SocketChannel ch = seat.channel;
+                if (ch != null) ch.close();
+                if (socket != null) socket.close();
+            } catch (IOException ignored) {}
+        }
+
+        // WebSocket 메시지도 TCP 와 같은 길이 제한과 안내를 적용한다.
+        private String readWebSocketLine(WebSocketSession ws) throws IOException {
+            String line = ws.readLine();
+            if (line != null && line.length() > MAX_LINE_LENGTH) {
+                oversizedLines.incrementAndGet();
+                sendMessage("SYSTEM:메시지가 너무 길어 " + MAX_LINE_LENGTH + "자까지만 처리됩니다.");
+                line = line.substring(0, MAX_LINE_LENGTH);
+            }
+            return line;
+        }
+
+        /**
+         * readLine 과 같지만 MAX_LINE_LENGTH 를 넘는 부분은 버린다.
+         */
+        private String readBoundedLine() throws IOException {
+            String line = in.readLine();
+            if (line != null && in.truncated()) {
+                oversizedLines.incrementAndGet();
+                sendMessage("SYSTEM:메시지가 너무 길어 " + MAX_LINE_LENGTH + "자까지만 처리됩니다.");
+            }
+            return line;
+        }
+
+        /**
+         * 채팅은 연결별 + 방 전체 버킷, 명령은 연결별 버킷으로 제한한다.
+         */
+        private boolean allowMessage(boolean isChat) {
+            boolean allowed;
+            if (isChat) {
+                allowed = chatBucket.tryAcquire() && roomChatBucket.tryAcquire();
+                if (!allowed) throttledChats.incrementAndGet();
+            } else {
+                allowed = commandBucket.tryAcquire();
+                if (!allowed) throttledCommands.incrementAndGet();
+            }
+
+            if (allowed) {
+                throttleNotified = false;
+            } else if (!throttleNotified) {
+                throttleNotified = true;
+                sendMessage("SYSTEM:메시지를 너무 빠르게 보내고 있습니다. 잠시 후 다시 시도하세요.");
+            }
+            return allowed;
+        }
+
+        private void handleQueue() {
+            if (currentPhase != GamePhase.WAITING) {
+                sendMessage("SYSTEM:게임 중에는 매칭 대기열에 들어갈 수 없습니다.");
+                return;
+            }
+            if (matchmaker.enqueue(this)) {
+                sendMessage("SYSTEM:매칭 대기열에 등록되었습니다. (대기 " + matchmaker.waitingCount() + "명)");
+            } else {
+                matchmaker.cancel(this);
+                sendMessage("SYSTEM:매칭 대기열에서 나왔습니다.");
+            }
+        }
+
+        private void handleNickname(String nickname) {
+            if (nickname.isEmpty()) {
+                return;
+            }
+            if (currentPhase != GamePhase.WAITING) {
+                // 게임 중 닉네임만으로는 좌석을 넘겨주지 않는다. 복구된 좌석은 RECLAIM:<좌석 토큰> 으로 이어받는다.
+                return;
+            }
+            PlayerStore.PlayerProfile profile = playerStore.getOrCreate(nickname);
+            this.name = profile.nickname;
+            sendMessage("SYSTEM:" + name + " 님의 전적: " + profile.gamesPlayed + "전 " + profile.totalWins() + "승");
+            broadcastPlayerList();
+        }
+
+        /**
+         * [수정] 서버 재시작 후, 입장 때 받은 좌석 토큰을 보낸 연결이 복구된 좌석을 이어받는다.
+         * 닉네임은 누구나 보낼 수 있으므로 좌석 주인 확인에 쓰지 않는다.
+         */
+        private void reclaimSeat(String token) {
+            if (currentPhase == GamePhase.WAITING || token.isEmpty()) {
+                // 클라이언트는 이전 판의 토큰을 매번 보낸다. 이어받을 게임이 없으면 조용히 무시한다.
+                return;
+            }
+            ClientHandler restored = null;
+            synchronized (Server.class) {
+                GameEvents.LockWait lockWait = GameEvents.LockWait.start("reclaimSeat");
+                synchronized (clientHandlers) {
+                    lockWait.acquired();
+                    byte[] presented = token.getBytes(StandardCharsets.UTF_8);
+                    for (ClientHandler h : clientHandlers) {
+                        if (h.isDetached() && !h.seatToken.isEmpty()
+                                && MessageDigest.isEqual(presented, h.seatToken.getBytes(StandardCharsets.UTF_8))) {
+                            restored = h;
+                            break;
+                        }
+                    }
+                    if (restored == null) {
+                        sendMessage("SYSTEM:이어받을 좌석이 없습니다.");
+                        return;
                     }
 
-                    if (message.startsWith("TIMER:")) {
-                        continue;
+                    clientHandlers.remove(this);
+                    restored.socket = this.socket;
+                    // 압축 스트림은 연결에 딸린 것이므로 채널과 함께 좌석으로 넘긴다.
+                    synchronized (this.writeLock) {
+                        this.flush();
+                        synchronized (restored.writeLock) {
+                            restored.channel = this.channel;
+                            restored.deflater = this.deflater;
+                            restored.webSocketFraming = this.webSocketFraming;
+                        }
+                        this.deflater = null;
+                        this.channel = null;
                     }
+                    if (this.isHost) {
+                        restored.isHost = true;
+                        restored.isReady = true;
+                        currentHost = restored;
+                    }
+                    this.seat = restored;
+                }
 
-                    if (status == PlayerStatus.DEAD && !message.startsWith("/ready") && !message.startsWith("CHAT_DEAD:")
-                    ) {
-                        sendMessage("SYSTEM:당신은 죽었습니다. 채팅 외의 행동은 할 수 없습니다.");
-                        continue;
+                System.out.println(restored.name + " 님이 복구된 좌석 P" + restored.playerNumber + "에 다시 접속했습니다.");
+                restored.sendMessage("PLAYER_NUM:" + restored.playerNumber);
+                // 입장 때 보낸 새 토큰 대신, 이어받은 좌석의 토큰을 다음 재시작에 쓰게 한다.
+                restored.sendMessage("SEAT_TOKEN:" + restored.seatToken);
+                restored.sendMessage("START_GAME");
+                restored.sendMessage("SYSTEM:[역할] 당신은 '" + restored.role.name() + "'입니다.");
+                if (restored.status == PlayerStatus.DEAD) {
+                    restored.sendMessage("YOU_DIED");
+                }
+                synchronized (investigatedRoles) {
+                    for (Map.Entry<Integer, String> entry : investigatedRoles.entrySet()) {
+                        restored.sendMessage("MARK_ROLE:P" + entry.getKey() + ":" + entry.getValue());
                     }
+                }
+                broadcastPlayerList();
+            }
+        }
+
+        private void leave() {
+            synchronized (Server.class) {
+                GameEvents.LockWait lockWait = GameEvents.LockWait.start("leave");
+                synchronized (clientHandlers) {
+                    lockWait.acquired();
+                    clientHandlers.remove(this);
 
-                    if (message.trim().equalsIgnoreCase("/start")) {
-                        System.out.println("P" + playerNumber + "로부터 /start 명령 수신");
-                        startGame(this);
+                    if (this.isHost && clientHandlers.size() > 0) {
+                        assignNewHost();
+                    } else if (this.isHost) {
+                        currentHost = null;
                     }
-                    else if (message.trim().equalsIgnoreCase("/ready")) {
-                        System.out.println("P" + playerNumber + "로부터 /ready 명령 수신");
-                        handleReady(this);
+
+                    GamePhase oldPhase = currentPhase;
+                    currentPhase = GamePhase.WAITING;
+                    broadcast("SYSTEM:" + name + "(P" + playerNumber + ") 님이 퇴장했습니다.");
+                    currentPhase = oldPhase;
+                    if (oldPhase != GamePhase.WAITING) {
+                        checkGameEnd();
                     }
-                    else if(message.trim().startsWith("/skill "))
-                    {
-                        if (currentPhase != GamePhase.NIGHT) {
-                            sendMessage("SYSTEM:능력은 밤에만 사용할 수 없습니다.");
-                            continue;
-                        }
-                        switch (role){
-                            case POLICE:
-                                handleInvestigate(this, message.trim());
-                                break;
-                            case DOCTOR:
-                                handleSave(this, message.trim());
-                                break;
-                            case MAFIA:
-                                handleKillCommand(this, message.trim());
-                                break;
-                            case CITIZEN:
-                                sendMessage("SYSTEM:시민은 능력을 사용할 수 없습니다.");
-                        }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            // [신규] 핸드셰이크 전부터 감시한다. 아무것도 보내지 않는 연결도 정리된다.
+            lastHeardMillis = clock.millis();
+            heartbeatWheel.schedule(this, heartbeatMillis);
+            TrafficCapture capture = Server.capture;
+            if (capture != null) {
+                capture.connected(playerNumber);
+            }
+            try {
+                in = new LineReader(channel, ioBuffers, MAX_LINE_LENGTH);
+                // [신규] WebSocket 이면 핸드셰이크 후 프레임 단위로 읽는다. 이후 처리는 TCP 와 같다.
+                WebSocketSession ws = null;
+                if (webSocketFraming) {
+                    // 한 줄 최대 길이(문자)를 UTF-8 최악의 경우로 환산한 만큼만 받아 둔다.
+                    ws = new WebSocketSession(in, (MAX_LINE_LENGTH + 1) * 4, webSocketChunks,
+                            frame -> seat.writeDirect(frame), () -> lastHeardMillis = clock.millis());
+                    webSocket = ws;
+                    try {
+                        writeDirect(ws.handshake());
+                    } catch (IOException e) {
+                        writeDirect(WebSocketSession.BAD_REQUEST.duplicate());
+                        throw e;
                     }
-                    else if (message.trim().startsWith("/vote ")) {
-                        if (currentPhase == GamePhase.DAY) {
-                            handleVote(this, message.trim());
+                    webSocketSessions.incrementAndGet();
+                }
+
+                Set<ClientHandler> joinBatch = beginBatch();
+                try {
+                    GameEvents.LockWait lockWait = GameEvents.LockWait.start("run");
+                    synchronized (clientHandlers) {
+                        lockWait.acquired();
+                        clientHandlers.add(this);
+                        joined = true;
+
+                        if (currentHost == null) {
+                            this.isHost = true;
+                            this.isReady = true;
+                            currentHost = this;
+                            sendMessage("SYSTEM:HOST_GRANTED");
+                            broadcast("SYSTEM:P" + this.playerNumber + "(" + this.name + ") 님이 방장 권한을 획득했습니다.");
                         } else {
-                            sendMessage("SYSTEM:투표는 낮에만 할 수 있습니다.");
+                            sendMessage("SYSTEM:GUEST_GRANTED");
                         }
                     }
 
-                    else if (message.startsWith("CHAT:") || message.startsWith("CHAT_MAFIA:") || message.startsWith("CHAT_DEAD:")) {
-                        synchronized (Server.class) {
-                            String content = message;
-                            if (message.startsWith("CHAT_MAFIA:")) {
-                                content = message.substring("CHAT_MAFIA:".length());
-                            } else if (message.startsWith("CHAT_DEAD:")) {
-                                content = message.substring("CHAT_DEAD:".length());
-                            } else if (message.startsWith("CHAT:")) {
-                                content = message.substring("CHAT:".length());
-                            }
-
-                            String chatMessage = content;
-
-                            if (this.status == PlayerStatus.DEAD) {
-                                System.out.println("[사망자 채팅] " + chatMessage);
-                                broadcastToDeadExceptSender("CHAT_DEAD:" + chatMessage, this);
-                            }
-                            else {
-                                if (currentPhase == GamePhase.DAY || currentPhase == GamePhase.WAITING) {
-                                    System.out.println("[" + currentPhase.name() + "] " + chatMessage);
-                                    broadcastExceptSenderToAll("CHAT:" + chatMessage, this);
-                                } else if (currentPhase == GamePhase.NIGHT) {
-                                    if (role == Role.MAFIA && status == PlayerStatus.ALIVE) {
-                                        System.out.println("[밤-마피아] " + chatMessage);
-                                        broadcastToMafiaExceptSender("CHAT_MAFIA:" + chatMessage, this);
-                                    } else {
-                                        System.out.println("[밤-시민팀 생존자] 메시지 차단");
-                                        sendMessage("SYSTEM:밤에는 마피아만 대화 가능합니다.");
-                                    }
-                                }
-                            }
+                    sendMessage("PLAYER_NUM:" + this.playerNumber);
+                    sendMessage("SEAT_TOKEN:" + this.seatToken);
+
+                    // [신규] 기존 조사 결과가 있다면 새로 접속한 클라이언트에게도 전송
+                    synchronized (investigatedRoles) {
+                        for (Map.Entry<Integer, String> entry : investigatedRoles.entrySet()) {
+                            sendMessage("MARK_ROLE:P" + entry.getKey() + ":" + entry.getValue());
                         }
                     }
-                    else {
-                        sendMessage("SYSTEM:알 수 없는 명령어입니다.");
+                } finally {
+                    endBatch(joinBatch);
+                }
+
+                String line;
+                while ((line = (ws != null) ? readWebSocketLine(ws) : readBoundedLine()) != null) {
+                    lastHeardMillis = clock.millis();
+                    if (capture != null) {
+                        capture.line(playerNumber, line);
+                    }
+                    GameEvents.Command event = GameEvents.Command.start();
+                    Set<ClientHandler> batch = beginBatch();
+                    try {
+                        seat.handleLine(line);
+                    } finally {
+                        endBatch(batch);
+                        event.finish(line, seat.playerNumber);
                     }
                 }
             } catch (IOException e) {
@@ -751,29 +2117,30 @@ public class Server {
                 System.out.println("P" + playerNumber + " 처리 중 예상치 못한 오류 발생: " + e.getMessage());
                 e.printStackTrace();
             } finally {
-                if (out != null) {
-                    synchronized (clientHandlers) {
-                        clientHandlers.remove(this);
-
-                        if (this.isHost && clientHandlers.size() > 0) {
-                            assignNewHost();
-                        } else if (this.isHost) {
-                            currentHost = null;
-                        }
-
-                        GamePhase oldPhase = currentPhase;
-                        currentPhase = GamePhase.WAITING;
-                        broadcast("SYSTEM:" + name + "(P" + playerNumber + ") 님이 퇴장했습니다.");
-                        currentPhase = oldPhase;
-                        if (oldPhase != GamePhase.WAITING) {
-                            checkGameEnd();
-                        }
-                    }
+                if (admittedAddress != null) {
+                    admission.release(admittedAddress);
+                }
+                heartbeatWheel.cancel(this);
+                if (capture != null) {
+                    capture.disconnected(playerNumber);
                 }
+                if (in != null) {
+                    in.close();
+                }
+                matchmaker.cancel(seat);
+                Set<ClientHandler> leaveBatch = beginBatch();
                 try {
-                    if (socket != null) socket.close();
-                } catch (IOException e) {}
-                broadcastPlayerList();
+                    if (joined) {
+                        seat.leave();
+                    }
+                    try {
+                        if (socket != null) socket.close();
+                    } catch (IOException e) {}
+                    seat.endCompression();
+                    broadcastPlayerList();
+                } finally {
+                    endBatch(leaveBatch);
+                }
             }
         }
     }
@@ -1,14 +1,22 @@
 import javax.swing.*;
 import java.awt.*;
-import java.io.IOException;
 
 public class ServerConnectionPanel extends JPanel {
 
     private JTextField nicknameField;
     private JTextField ipAddressField;
     private JTextField portNumberField;
+    // [신규] 서버→클라이언트 송신 압축 요청 (채팅이 많은 방, 느린 회선용)
+    private JCheckBox compressCheckBox;
     private JButton connectButton;
 
+    private JLabel statusLabel;
+    private Timer progressTimer;
+    // 진행 중인 접속 (EDT 에서만 읽고 쓴다)
+    private Connector.Attempt pendingAttempt;
+
+    private Runnable firstPaintListener;
+
     public ServerConnectionPanel(Client client) {
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -16,18 +24,30 @@ public class ServerConnectionPanel extends JPanel {
         nicknameField = new JTextField("P" + (int)(Math.random() * 1000), 10);
         ipAddressField = new JTextField("127.0.0.1", 10);
         portNumberField = new JTextField("9090", 10);
+        compressCheckBox = new JCheckBox("압축 사용");
 
         connectButton = new JButton("서버 연결");
         connectButton.addActionListener(e -> {
+            // 연결 중에 다시 누르면 취소
+            if (pendingAttempt != null) {
+                pendingAttempt.cancel();
+                return;
+            }
             try {
                 String nick = getNickname();
                 String ip = getIpAddress();
                 int port = getPort();
-                client.connectToServer(nick, ip, port);
+                pendingAttempt = client.connectToServer(nick, ip, port, compressCheckBox.isSelected());
+                setConnecting(true);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "포트 번호가 올바르지 않습니다.", "오류", JOptionPane.ERROR_MESSAGE);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "연결 실패: " + ex.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        statusLabel = new JLabel(" ");
+        progressTimer = new Timer(200, e -> {
+            if (pendingAttempt != null) {
+                statusLabel.setText(String.format("연결 중... %.1f초", pendingAttempt.elapsedMillis() / 1000.0));
             }
         });
 
@@ -41,9 +61,13 @@ public class ServerConnectionPanel extends JPanel {
 
         add(new JLabel("포트 넘버:"));
         add(portNumberField);
-        add(Box.createVerticalStrut(15));
+        add(Box.createVerticalStrut(5));
+        add(compressCheckBox);
+        add(Box.createVerticalStrut(10));
 
         add(connectButton);
+        add(Box.createVerticalStrut(5));
+        add(statusLabel);
         add(Box.createVerticalStrut(10));
 
         JLabel descLabel = new JLabel("<html>서버 연결 후<br>게임 참여 가능</html>", SwingConstants.CENTER);
@@ -53,6 +77,54 @@ public class ServerConnectionPanel extends JPanel {
         add(Box.createVerticalGlue());
     }
 
+    // 아래 두 메서드는 접속 결과가 나오면 EDT 에서 호출된다.
+    public void connectSucceeded() {
+        setConnecting(false);
+        statusLabel.setText(" ");
+    }
+
+    public void connectFailed(String reason) {
+        setConnecting(false);
+        statusLabel.setText(reason);
+        if (!reason.startsWith("연결이 취소")) {
+            JOptionPane.showMessageDialog(this, "연결 실패: " + reason, "오류", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void setConnecting(boolean connecting) {
+        if (!connecting) {
+            pendingAttempt = null;
+        }
+        nicknameField.setEnabled(!connecting);
+        ipAddressField.setEnabled(!connecting);
+        portNumberField.setEnabled(!connecting);
+        compressCheckBox.setEnabled(!connecting);
+        connectButton.setText(connecting ? "연결 취소" : "서버 연결");
+        if (connecting) {
+            statusLabel.setText("연결 중...");
+            progressTimer.start();
+        } else {
+            progressTimer.stop();
+        }
+    }
+
+    /**
+     * [신규] 이 화면이 처음 그려진 직후 한 번 호출된다 (첫 화면 표시 시간 측정용).
+     */
+    public void onFirstPaint(Runnable listener) {
+        this.firstPaintListener = listener;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (firstPaintListener != null) {
+            Runnable listener = firstPaintListener;
+            firstPaintListener = null;
+            SwingUtilities.invokeLater(listener);
+        }
+    }
+
     public String getNickname() {
         return nicknameField.getText().trim();
     }
@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 해시 타이밍 휠. 항목마다 타이머를 만들지 않고, 만료 시각을 tick 단위 칸에 나눠 담은 뒤
+ * 시계 작업 하나가 advance 로 지나간 칸만 훑는다. 등록/해제는 O(1), 정밀도는 tick 이다.
+ * 한 바퀴보다 먼 만료는 같은 칸에 두고 만료 tick 을 비교해 다음 바퀴까지 남겨 둔다.
+ *
+ * 만료 처리기는 락 밖에서 부르며, 돌려준 값(밀리초)이 0 보다 크면 그만큼 뒤로 다시 등록한다.
+ * 처리기가 도는 동안 cancel 된 항목은 다시 등록하지 않는다.
+ */
+final class TimingWheel<T> {
+
+    interface Handler<T> {
+        long expired(T item, long nowMillis);
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        long deadlineTick;
+        int slot;
+        // 처리기가 도는 동안 cancel 되었는지 (휠 락으로 보호)
+        boolean cancelled;
+
+        Entry(T item) {
+            this.item = item;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Set<Entry<T>>> slots;
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+    // 만료되어 처리기가 도는 중인 항목. 이 사이의 cancel 을 기억해 두려고 둔다.
+    private final Map<T, Entry<T>> firing = new HashMap<>();
+    private final Handler<T> handler;
+    // 마지막으로 처리한 tick
+    private long currentTick;
+
+    TimingWheel(long tickMillis, int slotCount, long startMillis, Handler<T> handler) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+        this.handler = handler;
+    }
+
+    /**
+     * delayMillis 뒤에 만료되도록 등록한다. 이미 있으면 만료 시각만 바꾼다.
+     */
+    synchronized void schedule(T item, long delayMillis) {
+        Entry<T> entry = entries.get(item);
+        if (entry == null) {
+            entry = new Entry<>(item);
+            entries.put(item, entry);
+        } else {
+            slots.get(entry.slot).remove(entry);
+        }
+        // 최소 한 tick 뒤 (현재 칸은 이미 지나갔다)
+        entry.deadlineTick = currentTick + Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        entry.slot = (int) (entry.deadlineTick % slots.size());
+        slots.get(entry.slot).add(entry);
+    }
+
+    synchronized void cancel(T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry != null) {
+            slots.get(entry.slot).remove(entry);
+        }
+        Entry<T> inFlight = firing.get(item);
+        if (inFlight != null) {
+            inFlight.cancelled = true;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * nowMillis 까지 지나간 칸의 만료 항목을 처리한다. 시계 작업에서 주기적으로 부른다.
+     */
+    void advance(long nowMillis) {
+        List<Entry<T>> expired = new ArrayList<>();
+        synchronized (this) {
+            long target = nowMillis / tickMillis;
+            // 시계가 크게 건너뛰어도 칸은 한 바퀴만 돌면 모두 본다.
+            long from = Math.max(currentTick + 1, target - slots.size() + 1);
+            for (long tick = from; tick <= target; tick++) {
+                Iterator<Entry<T>> it = slots.get((int) (tick % slots.size())).iterator();
+                while (it.hasNext()) {
+                    Entry<T> entry = it.next();
+                    if (entry.deadlineTick <= target) {
+                        it.remove();
+                        entries.remove(entry.item);
+                        firing.put(entry.item, entry);
+                        expired.add(entry);
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, target);
+        }
+
+        for (Entry<T> entry : expired) {
+            long next = handler.expired(entry.item, nowMillis);
+            synchronized (this) {
+                firing.remove(entry.item, entry);
+                if (next > 0 && !entry.cancelled) {
+                    schedule(entry.item, next);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * lock-free 토큰 버킷. 상태를 "다음 토큰이 허용되는 이론상 시각" 하나로 표현해
+ * AtomicLong CAS 한 번으로 판정한다(GCRA 방식).
+ */
+public class TokenBucket {
+
+    // 아직 토큰을 쓴 적 없음. 첫 요청 시각을 기준으로 삼는다.
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final AtomicLong theoreticalArrival = new AtomicLong(NEVER);
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    /**
+     * @param tokensPerSecond 초당 보충되는 토큰 수
+     * @param burst           한 번에 몰아서 쓸 수 있는 최대 토큰 수
+     */
+    public TokenBucket(double tokensPerSecond, int burst) {
+        this(tokensPerSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * @param clock 나노초 단위 현재 시각 (가상 시계를 쓸 때 지정)
+     */
+    public TokenBucket(double tokensPerSecond, int burst, LongSupplier clock) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * Math.max(1, burst);
+        this.clock = clock;
+    }
+
+    public boolean tryAcquire() {
+        long now = clock.getAsLong();
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = (tat == NEVER) ? now : Math.max(tat, now);
+            long next = base + nanosPerToken;
+            if (next - now > burstNanos) {
+                throttled.incrementAndGet();
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                allowed.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    public long getAllowedCount() {
+        return allowed.get();
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 서버가 받은 줄을 연결 ID, 시각과 함께 파일로 남긴다. TrafficReplay 로 같은 순서와 간격(또는 배속)으로 다시 보낸다.
+ * 연결 스레드는 메모리 버퍼에 레코드를 인코딩만 하고, 파일 쓰기는 백그라운드 스레드가 모아서 한다.
+ *
+ * 파일 형식 (정수는 모두 부호 없는 varint):
+ *   머리: "MCAP" | 버전(1바이트) | 캡처 시작 시각(epoch 밀리초, varint)
+ *   레코드: 종류(1바이트, 1=접속 2=줄 3=종료) | 연결 ID | 앞 레코드와의 시간 차(마이크로초) | [줄이면 길이 + UTF-8 바이트]
+ */
+final class TrafficCapture {
+
+    static final int CONNECT = 1;
+    static final int LINE = 2;
+    static final int DISCONNECT = 3;
+
+    private static final byte[] MAGIC = {'M', 'C', 'A', 'P'};
+    private static final int VERSION = 1;
+    private static final long FLUSH_INTERVAL_MILLIS = 200;
+
+    /**
+     * 읽어 들인 레코드 하나. micros 는 캡처 시작부터의 절대 시각이다.
+     */
+    static final class Record {
+        final int type;
+        final int connection;
+        final long micros;
+        final String line;
+
+        Record(int type, int connection, long micros, String line) {
+            this.type = type;
+            this.connection = connection;
+            this.micros = micros;
+            this.line = line;
+        }
+    }
+
+    private final Path file;
+    private final LongSupplier clock;
+    private final long startNanos;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "traffic-capture");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 아직 파일에 쓰지 않은 레코드 (this 로 보호)
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private long lastMicros;
+    private long records;
+    private long bytesWritten;
+
+    /**
+     * file 을 새로 만들고 기록을 시작한다. clock 은 나노초 단위 현재 시각.
+     */
+    TrafficCapture(Path file, LongSupplier clock) throws IOException {
+        this.file = file;
+        this.clock = clock;
+        this.startNanos = clock.getAsLong();
+        ByteArrayOutputStream header = new ByteArrayOutputStream(16);
+        header.write(MAGIC);
+        header.write(VERSION);
+        writeVarLong(header, System.currentTimeMillis());
+        Files.write(file, header.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        bytesWritten = header.size();
+
+        writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushNow));
+    }
+
+    void connected(int connection) {
+        record(CONNECT, connection, null);
+    }
+
+    void line(int connection, String line) {
+        record(LINE, connection, line);
+    }
+
+    void disconnected(int connection) {
+        record(DISCONNECT, connection, null);
+    }
+
+    synchronized long records() {
+        return records;
+    }
+
+    synchronized long bytesWritten() {
+        return bytesWritten + pending.size();
+    }
+
+    private void record(int type, int connection, String line) {
+        byte[] bytes = line != null ? line.getBytes(StandardCharsets.UTF_8) : null;
+        long micros = (clock.getAsLong() - startNanos) / 1000;
+        synchronized (this) {
+            // 시각은 락 안의 순서대로 단조 증가하게 맞춘다 (재생 순서 = 기록 순서).
+            long delta = Math.max(0, micros - lastMicros);
+            lastMicros += delta;
+            pending.write(type);
+            writeVarLong(pending, connection);
+            writeVarLong(pending, delta);
+            if (bytes != null) {
+                writeVarLong(pending, bytes.length);
+                pending.write(bytes, 0, bytes.length);
+            }
+            records++;
+        }
+    }
+
+    private void flush() {
+        ByteArrayOutputStream full;
+        synchronized (this) {
+            if (pending.size() == 0) {
+                return;
+            }
+            full = pending;
+            pending = new ByteArrayOutputStream(64 * 1024);
+            bytesWritten += full.size();
+        }
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.APPEND)) {
+            full.writeTo(out);
+        } catch (IOException e) {
+            System.err.println("트래픽 캡처 기록 실패: " + e.getMessage());
+        }
+    }
+
+    private void flushNow() {
+        try {
+            writer.submit(this::flush).get(2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            flush();
+        }
+    }
+
+    /**
+     * 캡처 파일 전체를 읽는다. 기록 중에 잘린 마지막 레코드는 버린다.
+     */
+    static List<Record> read(Path file) throws IOException {
+        List<Record> records = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) {
+                throw new IOException("트래픽 캡처 파일이 아닙니다: " + file);
+            }
+            readVarLong(in); // 캡처 시작 시각 (표시용)
+            long micros = 0;
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+                try {
+                    int connection = (int) readVarLong(in);
+                    micros += readVarLong(in);
+                    String line = null;
+                    if (type == LINE) {
+                        byte[] bytes = new byte[(int) readVarLong(in)];
+                        in.readFully(bytes);
+                        line = new String(bytes, StandardCharsets.UTF_8);
+                    }
+                    records.add(new Record(type, connection, micros, line));
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return records;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint 가 너무 깁니다.");
+    }
+}
@@ -0,0 +1,211 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TrafficCapture 로 남긴 세션을 새 서버에 다시 보낸다. 기록된 연결마다 소켓을 열고, 모든 연결의 줄을
+ * 기록된 순서 그대로 한 스레드에서 보낸다. 보내는 시각은 기록된 간격을 배속으로 나눈 것이고 max 면 기다리지 않는다.
+ * PONG/COMPRESS 줄은 재생하지 않는다 (하트비트는 재생기가 직접 답한다). 연결 종료는 송신 쪽만 닫아(half-close)
+ * 서버가 같은 순서로 퇴장을 처리하게 하고, 그때까지의 응답은 서버가 소켓을 닫을 때까지 받는다.
+ *
+ * 끝나면 처리량과 채팅 전달 지연을 출력한다. 서버는 채팅을 보낸 사람을 빼고 중계하므로,
+ * 지연은 한 연결이 보낸 채팅이 다른 연결에 도착하기까지의 시간이다. 같은 본문이 여러 번 나오거나 금칙어가 가려져도
+ * 짝을 찾을 수 있도록 재생하는 채팅 줄 끝에 순번 꼬리표(" #r<순번>")를 붙이고, 꼬리표로 짝을 맞춘다.
+ * 어느 연결에도 도착하지 않은 채팅(받을 사람이 없거나 서버가 제한으로 버린 것)은 따로 센다.
+ * 서버의 연결 수 제한보다 동시 연결이 많으면 --max-connections 를 늘려 띄운다.
+ *
+ * 실행: java TrafficReplay <캡처 파일> <host> <port> [배속: 1 | 10 | max]
+ */
+public class TrafficReplay {
+
+    // 마지막 줄을 보낸 뒤 응답을 더 기다리는 시간
+    private static final long DRAIN_MILLIS = 2000;
+
+    private static final AtomicLong receivedLines = new AtomicLong();
+    private static final AtomicLong receivedBytes = new AtomicLong();
+    private static final AtomicLong rejected = new AtomicLong();
+    // 채팅 꼬리표. 숫자만 붙이므로 금칙어 필터에 가려지지 않는다.
+    private static final String CHAT_TAG = " #r";
+    // 꼬리표 순번 -> 보낸 시각, 한 번이라도 도착한 순번
+    private static final Map<Long, Long> chatSentAt = new ConcurrentHashMap<>();
+    private static final Set<Long> chatDelivered = ConcurrentHashMap.newKeySet();
+    private static final List<Long> chatLatencies = Collections.synchronizedList(new ArrayList<>());
+
+    public static void main(String[] args) throws Exception {
+        List<TrafficCapture.Record> records = TrafficCapture.read(Paths.get(args[0]));
+        String host = args[1];
+        int port = Integer.parseInt(args[2]);
+        double speed = args.length > 3 && !args[3].equals("max") ? Double.parseDouble(args[3]) : 0;
+        if (records.isEmpty()) {
+            System.out.println("재생할 레코드가 없습니다.");
+            return;
+        }
+        long capturedMicros = records.get(records.size() - 1).micros;
+        System.out.printf("레코드 %d개, 기록 구간 %.1f초, 배속 %s%n",
+                records.size(), capturedMicros / 1e6, speed > 0 ? speed + "x" : "max");
+
+        Map<Integer, Socket> sockets = new HashMap<>();
+        List<Long> sendLag = new ArrayList<>();
+        long sentLines = 0;
+        long chatSeq = 0;
+        long start = System.nanoTime();
+        for (TrafficCapture.Record record : records) {
+            if (speed > 0) {
+                long due = start + (long) (record.micros * 1000 / speed);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                sendLag.add(System.nanoTime() - due);
+            }
+
+            switch (record.type) {
+                case TrafficCapture.CONNECT:
+                    sockets.put(record.connection, open(host, port));
+                    break;
+                case TrafficCapture.LINE: {
+                    Socket socket = sockets.get(record.connection);
+                    if (socket == null || record.line.startsWith("PONG:") || record.line.startsWith("COMPRESS:")) {
+                        break;
+                    }
+                    String line = record.line;
+                    if (isChat(line)) {
+                        long seq = ++chatSeq;
+                        line = line + CHAT_TAG + seq;
+                        chatSentAt.put(seq, System.nanoTime());
+                    }
+                    if (send(socket, line)) {
+                        sentLines++;
+                    }
+                    break;
+                }
+                case TrafficCapture.DISCONNECT: {
+                    // 송신만 닫는다. 서버는 같은 순서로 EOF 를 보고, 그 전 줄에 대한 응답은 끝까지 받는다.
+                    Socket socket = sockets.get(record.connection);
+                    if (socket != null && !socket.isOutputShutdown()) {
+                        socket.shutdownOutput();
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+        long sendNanos = System.nanoTime() - start;
+        Thread.sleep(DRAIN_MILLIS);
+        for (Socket socket : sockets.values()) {
+            socket.close();
+        }
+
+        double seconds = sendNanos / 1e9;
+        System.out.printf("재생 %.2f초 (기록 대비 %.1f배), 송신 %d줄 (초당 %.0f), 수신 %d줄 / %d바이트 (송신 구간 기준 초당 %.0f줄)%n",
+                seconds, seconds > 0 ? capturedMicros / 1e6 / seconds : 0, sentLines, sentLines / Math.max(seconds, 1e-9),
+                receivedLines.get(), receivedBytes.get(), receivedLines.get() / Math.max(seconds, 1e-9));
+        if (rejected.get() > 0) {
+            System.out.println("서버가 거절한 연결 " + rejected.get() + "개 (서버 --max-connections 확인)");
+        }
+        printPercentiles("채팅 전달 지연", chatLatencies);
+        if (chatSeq > 0) {
+            System.out.printf("채팅 %d건 중 어느 연결에도 도착하지 않은 것 %d건%n", chatSeq, chatSeq - chatDelivered.size());
+        }
+        if (!sendLag.isEmpty()) {
+            printPercentiles("재생기 송신 지연 (예정 시각 대비)", sendLag);
+        }
+    }
+
+    private static Socket open(String host, int port) throws IOException {
+        Socket socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        Thread reader = new Thread(() -> receive(socket), "replay-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return socket;
+    }
+
+    private static boolean send(Socket socket, String line) {
+        try {
+            OutputStream out = socket.getOutputStream();
+            out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void receive(Socket socket) {
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                long now = System.nanoTime();
+                receivedLines.incrementAndGet();
+                receivedBytes.addAndGet(line.length() + 1);
+                if (line.startsWith("PING:")) {
+                    send(socket, "PONG:" + line.substring("PING:".length()));
+                } else if (line.startsWith("SYSTEM:REJECTED:")) {
+                    rejected.incrementAndGet();
+                } else if (isChat(line)) {
+                    long seq = chatTag(line);
+                    Long sentAt = seq > 0 ? chatSentAt.get(seq) : null;
+                    if (sentAt != null) {
+                        chatLatencies.add(now - sentAt);
+                        chatDelivered.add(seq);
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+            // 재생이 끝나 소켓을 닫았다.
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // 서버는 단계에 따라 CHAT/CHAT_MAFIA/CHAT_DEAD 로 머리를 바꿔 중계하므로 머리는 보지 않는다.
+    private static boolean isChat(String line) {
+        return line.startsWith("CHAT:") || line.startsWith("CHAT_MAFIA:") || line.startsWith("CHAT_DEAD:");
+    }
+
+    // 줄 끝의 꼬리표 순번. 없거나 깨졌으면 0
+    private static long chatTag(String line) {
+        int at = line.lastIndexOf(CHAT_TAG);
+        if (at < 0) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(line.substring(at + CHAT_TAG.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void printPercentiles(String label, List<Long> samples) {
+        List<Long> sorted;
+        synchronized (samples) {
+            sorted = new ArrayList<>(samples);
+        }
+        if (sorted.isEmpty()) {
+            System.out.println(label + ": 표본 없음");
+            return;
+        }
+        Collections.sort(sorted);
+        System.out.printf("%s: %d건, p50 %.2fms, p95 %.2fms, p99 %.2fms, 최대 %.2fms%n", label, sorted.size(),
+                sorted.get(sorted.size() / 2) / 1e6, sorted.get((int) (sorted.size() * 0.95)) / 1e6,
+                sorted.get((int) (sorted.size() * 0.99)) / 1e6, sorted.get(sorted.size() - 1) / 1e6);
+    }
+}
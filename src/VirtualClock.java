@@ -0,0 +1,131 @@
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 가상 시간 시계. 시간은 advance 를 부를 때만 흐르고, 기한이 된 작업은 부른 스레드에서
+ * 예약 시각 순서대로(같은 시각이면 예약 순서대로) 실행된다. 60초짜리 낮/밤도 즉시 넘어간다.
+ */
+public class VirtualClock implements GameClock {
+
+    private final class Scheduled implements Task, Comparable<Scheduled> {
+        final Runnable task;
+        final long period;
+        final long seq;
+        long when;
+        volatile boolean cancelled = false;
+
+        Scheduled(Runnable task, long when, long period, long seq) {
+            this.task = task;
+            this.when = when;
+            this.period = period;
+            this.seq = seq;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(Scheduled o) {
+            if (when != o.when) return Long.compare(when, o.when);
+            return Long.compare(seq, o.seq);
+        }
+    }
+
+    private final PriorityQueue<Scheduled> queue = new PriorityQueue<>();
+    private long now = 0;
+    private long nextSeq = 0;
+    private long executed = 0;
+
+    @Override
+    public synchronized long nanoTime() {
+        return now;
+    }
+
+    @Override
+    public synchronized Task schedule(Runnable task, long delay, TimeUnit unit) {
+        Scheduled s = new Scheduled(task, now + unit.toNanos(Math.max(0, delay)), 0, nextSeq++);
+        queue.add(s);
+        return s;
+    }
+
+    @Override
+    public synchronized Task scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) throw new IllegalArgumentException("period must be positive");
+        Scheduled s = new Scheduled(task, now + unit.toNanos(Math.max(0, initialDelay)), unit.toNanos(period), nextSeq++);
+        queue.add(s);
+        return s;
+    }
+
+    /**
+     * 시간을 amount 만큼 흘리며 그 사이에 기한이 되는 작업을 모두 실행한다.
+     */
+    public void advance(long amount, TimeUnit unit) {
+        long target;
+        synchronized (this) {
+            target = now + unit.toNanos(amount);
+        }
+        while (runNext(target)) {
+            // 기한이 지난 작업이 없을 때까지 반복
+        }
+        synchronized (this) {
+            now = Math.max(now, target);
+        }
+    }
+
+    /**
+     * 조건이 참이 될 때까지 다음 예약 시각으로 건너뛰며 실행한다. 한도 시간 안에 참이 되면 true.
+     */
+    public boolean advanceUntil(BooleanSupplier condition, long limit, TimeUnit unit) {
+        long deadline;
+        synchronized (this) {
+            deadline = now + unit.toNanos(limit);
+        }
+        while (!condition.getAsBoolean()) {
+            if (!runNext(deadline)) {
+                synchronized (this) {
+                    now = Math.max(now, deadline);
+                }
+                return condition.getAsBoolean();
+            }
+        }
+        return true;
+    }
+
+    public synchronized int pendingTasks() {
+        return queue.size();
+    }
+
+    public synchronized long executedTasks() {
+        return executed;
+    }
+
+    // 작업은 락 밖에서 실행한다. 작업 안에서 다시 예약하거나 다른 스레드가 예약해도 된다.
+    private boolean runNext(long target) {
+        Scheduled next;
+        synchronized (this) {
+            while (true) {
+                next = queue.peek();
+                if (next == null || next.when > target) return false;
+                queue.poll();
+                if (!next.cancelled) break;
+            }
+            now = Math.max(now, next.when);
+            executed++;
+        }
+
+        try {
+            next.task.run();
+        } finally {
+            if (next.period > 0 && !next.cancelled) {
+                synchronized (this) {
+                    next.when += next.period;
+                    queue.add(next);
+                }
+            }
+        }
+        return true;
+    }
+}
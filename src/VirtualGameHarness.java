@@ -0,0 +1,121 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 가상 시계로 한 판을 끝까지 돌려 보는 도구. 같은 프로세스에서 서버를 VirtualClock 으로 띄우고, 사람 한 명이 들어가
+ * 아무것도 하지 않는다. 봇 채우기 대기(60초)와 낮/밤 타이머가 모두 가상 시간으로 흘러 봇이 채운 게임이 GAME_OVER 까지 가는지 확인한다.
+ *
+ * 시간은 1초씩 흘리고, 그 1초의 TIMER 가 사람에게 도착할 때까지 기다린 뒤 다음 1초로 넘어간다.
+ * 그래서 PING 에 대한 PONG 도 같은 가상 시각 안에 서버에 닿고, 하트비트가 사람을 끊지 않는다.
+ * 시계 작업의 송신은 송신 스레드가 따로 내보내므로, 1초를 흘린 뒤 알 수 없는 명령(/sync)을 보내 그 응답을 기다린다.
+ * 응답은 같은 송신 큐에서 그 1초에 쌓인 줄 뒤에 오므로, 응답을 받으면 그 1초의 TIMER 와 GAME_OVER 도 이미 받은 것이다.
+ * 역할 배정과 봇 행동은 시드를 준 난수를 쓰므로 같은 시드는 같은 게임을 만든다. 시드를 주지 않으면 새로 골라 출력한다.
+ * 끝나면 시드, 가상 시간, 실제 걸린 시간, 실행한 예약 작업 수를 출력하고 실패하면 종료 코드 1 로 끝난다.
+ *
+ * 실행: java VirtualGameHarness [port] [가상 시간 한도(초)] [시드]
+ */
+public class VirtualGameHarness {
+
+    private static final long STEP_WAIT_MILLIS = 2000;
+
+    private static final AtomicLong joined = new AtomicLong();
+    private static final AtomicLong timers = new AtomicLong();
+    private static final AtomicLong syncs = new AtomicLong();
+    private static final AtomicBoolean sawDay = new AtomicBoolean();
+    private static final AtomicBoolean sawNight = new AtomicBoolean();
+    private static final AtomicBoolean gameOver = new AtomicBoolean();
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9190;
+        long limitSeconds = args.length > 1 ? Long.parseLong(args[1]) : 3600;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        // 이전 실행의 체크포인트를 복구하지 않도록 지운다.
+        Files.deleteIfExists(Paths.get("room-" + port + ".ckpt"));
+
+        VirtualClock clock = new VirtualClock();
+        Server.useClock(clock);
+        Server.useRandom(seed);
+        Server.startServerLogic(port);
+
+        Socket socket = new Socket("localhost", port);
+        socket.setTcpNoDelay(true);
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        Thread reader = new Thread(() -> receive(in, out), "harness-reader");
+        reader.setDaemon(true);
+        reader.start();
+        out.println("NICKNAME:human");
+        // 방장으로 입장할 때까지. 가상 시계는 advance 전까지 TIMER 를 보내지 않는다.
+        if (!await(joined, 1)) {
+            System.out.println("실패: 입장 응답이 " + STEP_WAIT_MILLIS + "ms 안에 오지 않았습니다. (시드 " + seed + ")");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        long seconds = 0;
+        while (!gameOver.get() && seconds < limitSeconds) {
+            long expected = timers.get() + 1;
+            long expectedSync = syncs.get() + 1;
+            clock.advance(1, TimeUnit.SECONDS);
+            seconds++;
+            out.println("/sync");
+            if (!await(syncs, expectedSync) || timers.get() < expected) {
+                System.out.println("실패: 가상 " + seconds + "초의 TIMER 와 /sync 응답이 " + STEP_WAIT_MILLIS + "ms 안에 오지 않았습니다. (시드 " + seed + ")");
+                System.exit(1);
+            }
+        }
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        boolean ok = gameOver.get() && sawDay.get() && sawNight.get();
+        System.out.printf("%s: 시드 %d, 가상 %d초, 실제 %dms, 예약 작업 %d개 실행 (낮 %s, 밤 %s, GAME_OVER %s)%n",
+                ok ? "성공" : "실패", seed, seconds, wallMillis, clock.executedTasks(), sawDay.get(), sawNight.get(), gameOver.get());
+        socket.close();
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void receive(BufferedReader in, PrintWriter out) {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("PING:")) {
+                    out.println("PONG:" + line.substring("PING:".length()));
+                } else if (line.startsWith("TIMER:")) {
+                    if (line.startsWith("TIMER:DAY:")) sawDay.set(true);
+                    if (line.startsWith("TIMER:NIGHT:")) sawNight.set(true);
+                    timers.incrementAndGet();
+                } else if (line.equals("SYSTEM:HOST_GRANTED")) {
+                    joined.incrementAndGet();
+                } else if (line.equals("SYSTEM:알 수 없는 명령어입니다.")) {
+                    syncs.incrementAndGet();
+                } else if (line.equals("GAME_OVER")) {
+                    gameOver.set(true);
+                }
+            }
+        } catch (IOException ignored) {
+            // 도구가 끝나 소켓을 닫았다.
+        }
+    }
+
+    private static boolean await(AtomicLong counter, long expected) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STEP_WAIT_MILLIS);
+        while (counter.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+}
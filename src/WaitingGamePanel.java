@@ -1,12 +1,18 @@
 import javax.swing.*;
 import java.awt.*;
-import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class WaitingGamePanel extends JPanel {
 
+    // [수정] 채팅 로그와 참가자 목록을 분리. 채팅은 최근 MAX_CHAT_LINES 줄만 남긴다.
+    private static final int MAX_CHAT_LINES = 500;
+
     private JTextArea displayArea;
 
+    private final DefaultListModel<String> rosterModel = new DefaultListModel<>();
+    private JLabel rosterTitle;
+
     private JButton startGameButton;
     private JButton readyButton;
 
@@ -28,6 +34,17 @@ public class WaitingGamePanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(displayArea);
         add(scrollPane, BorderLayout.CENTER);
 
+        JPanel rosterPanel = new JPanel(new BorderLayout());
+        rosterTitle = new JLabel("참가자 (0명)");
+        rosterPanel.add(rosterTitle, BorderLayout.NORTH);
+        JList<String> rosterList = new JList<>(rosterModel);
+        rosterList.setFocusable(false);
+        rosterList.setVisibleRowCount(8);
+        // 모든 행 높이가 같으므로 행마다 크기를 재지 않게 한다.
+        rosterList.setPrototypeCellValue("P00 - 닉네임닉네임닉네임 (생존) (준비)");
+        rosterPanel.add(new JScrollPane(rosterList), BorderLayout.CENTER);
+        add(rosterPanel, BorderLayout.EAST);
+
         JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
 
         // 1. 게임 시작 버튼 (방장 전용)
@@ -47,28 +64,49 @@ public class WaitingGamePanel extends JPanel {
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * 참가자 목록을 제자리에서 갱신한다. 바뀐 행만 set 하므로 준비 토글 한 번에 한 행만 다시 그려진다.
+     */
     public void updatePlayerList(List<String> players) {
-
-        if (players == null || players.isEmpty()) {
-            displayArea.append("\n--- 참가자 (0명) ---\n참가자가 없습니다.\n");
-            return;
+        // 빈 "PLAYERS_LIST:" 는 빈 문자열 하나로 들어온다.
+        players = (players == null) ? List.of()
+                : players.stream().filter(p -> !p.isEmpty()).collect(Collectors.toList());
+
+        int common = Math.min(players.size(), rosterModel.size());
+        for (int i = 0; i < common; i++) {
+            if (!players.get(i).equals(rosterModel.get(i))) {
+                rosterModel.set(i, players.get(i));
+            }
         }
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n--- 참가자 (").append(players.size()).append("명) ---\n");
-        for (String p : players) {
-            sb.append(p).append("\n");
+        if (rosterModel.size() > players.size()) {
+            rosterModel.removeRange(players.size(), rosterModel.size() - 1);
+        }
+        for (int i = common; i < players.size(); i++) {
+            rosterModel.addElement(players.get(i));
         }
 
-        displayArea.append(sb.toString());
-        displayArea.setCaretPosition(displayArea.getDocument().getLength()); // 스크롤 하단
+        rosterTitle.setText("참가자 (" + rosterModel.size() + "명)");
     }
 
     public void appendChatMessage(String message) {
         displayArea.append(message + "\n");
+        trimChatLog();
         displayArea.setCaretPosition(displayArea.getDocument().getLength());
     }
 
+    // 오래된 줄을 앞에서부터 지워 문서 크기를 일정하게 유지한다.
+    private void trimChatLog() {
+        int excess = displayArea.getLineCount() - 1 - MAX_CHAT_LINES;
+        if (excess <= 0) {
+            return;
+        }
+        try {
+            displayArea.getDocument().remove(0, displayArea.getLineEndOffset(excess - 1));
+        } catch (javax.swing.text.BadLocationException e) {
+            displayArea.setText("");
+        }
+    }
+
     public void updateButtons(boolean isHost, boolean isReady) {
         startGameButton.setVisible(isHost);
         readyButton.setVisible(!isHost);
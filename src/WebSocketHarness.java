@@ -0,0 +1,168 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket 접속 확인 도구. JDK 의 WebSocket 클라이언트(브라우저 대신)와 기존 TCP 클라이언트를
+ * 같은 방에 넣고 입장, 채팅 양방향 전달, 여러 줄 메시지, 긴 메시지 잘림, ping/pong, 종료를 차례로 확인한다.
+ * 서버는 --ws 포트를 켠 상태로 미리 띄워 둔다.
+ *
+ * 실행: java WebSocketHarness <host> <TCP 포트> <WebSocket 포트> [WebSocket 클라이언트 수]
+ */
+public class WebSocketHarness {
+
+    private static final long WAIT_MILLIS = 3000;
+
+    private static int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        String host = args[0];
+        int tcpPort = Integer.parseInt(args[1]);
+        int wsPort = Integer.parseInt(args[2]);
+        int count = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        // 기존 Swing 클라이언트와 같은 TCP 플레이어
+        Socket tcp = new Socket(host, tcpPort);
+        tcp.setTcpNoDelay(true);
+        PrintWriter tcpOut = new PrintWriter(new OutputStreamWriter(tcp.getOutputStream(), StandardCharsets.UTF_8), true);
+        BlockingQueue<String> tcpIn = new LinkedBlockingQueue<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(tcp.getInputStream(), StandardCharsets.UTF_8));
+        Thread t = new Thread(() -> {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) tcpIn.add(line);
+            } catch (IOException ignored) {
+            }
+        }, "tcp-reader");
+        t.setDaemon(true);
+        t.start();
+        tcpOut.println("NICKNAME:tcp");
+
+        // 브라우저 역할의 WebSocket 플레이어들
+        HttpClient http = HttpClient.newHttpClient();
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Session s = new Session();
+            s.socket = http.newWebSocketBuilder()
+                    .buildAsync(URI.create("ws://" + host + ":" + wsPort + "/"), s)
+                    .get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            s.send("NICKNAME:ws" + i);
+            sessions.add(s);
+        }
+        for (int i = 0; i < count; i++) {
+            check("ws" + i + " 입장", await(sessions.get(i).received, "PLAYER_NUM:") != null);
+        }
+
+        // TCP → WebSocket
+        long start = System.nanoTime();
+        tcpOut.println("CHAT:tcp:안녕하세요");
+        for (int i = 0; i < count; i++) {
+            check("ws" + i + " 가 TCP 채팅 수신", await(sessions.get(i).received, "CHAT:tcp:안녕하세요") != null);
+        }
+        System.out.printf("TCP -> WebSocket %d명 전달: %.2f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        // WebSocket → TCP, 다른 WebSocket
+        start = System.nanoTime();
+        sessions.get(0).send("CHAT:ws0:반갑습니다");
+        check("TCP 가 WebSocket 채팅 수신", await(tcpIn, "CHAT:ws0:반갑습니다") != null);
+        System.out.printf("WebSocket -> TCP 전달: %.2f ms%n", (System.nanoTime() - start) / 1e6);
+        if (count > 1) {
+            check("ws1 이 ws0 채팅 수신", await(sessions.get(1).received, "CHAT:ws0:반갑습니다") != null);
+        }
+
+        // 한 메시지에 두 줄이면 두 명령으로 처리된다.
+        sessions.get(0).send("CHAT:ws0:첫째 줄\nCHAT:ws0:둘째 줄");
+        check("여러 줄 메시지 1", await(tcpIn, "CHAT:ws0:첫째 줄") != null);
+        check("여러 줄 메시지 2", await(tcpIn, "CHAT:ws0:둘째 줄") != null);
+
+        // 긴 메시지는 TCP 와 같은 안내와 함께 잘린다.
+        sessions.get(0).send("CHAT:ws0:" + "가".repeat(3000));
+        String notice = await(sessions.get(0).received, "SYSTEM:메시지가 너무 길어");
+        check("긴 메시지 잘림 안내", notice != null);
+
+        // 제어 프레임
+        sessions.get(0).socket.sendPing(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        check("ping 에 pong 응답", await(sessions.get(0).received, "(pong)") != null);
+
+        // 종료하면 TCP 쪽 목록에서 빠진다.
+        Session last = sessions.get(count - 1);
+        last.socket.sendClose(WebSocket.NORMAL_CLOSURE, "bye").get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        check("close 응답", await(last.received, "(closed)") != null);
+        String list = awaitMatching(tcpIn, "PLAYERS_LIST:", "ws" + (count - 1));
+        check("종료한 플레이어가 목록에서 빠짐", list != null);
+
+        tcp.close();
+        System.out.println(failures == 0 ? "모든 확인 통과" : "실패 " + failures + "건");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static void check(String name, boolean ok) {
+        System.out.println((ok ? "[통과] " : "[실패] ") + name);
+        if (!ok) failures++;
+    }
+
+    private static String await(BlockingQueue<String> queue, String prefix) throws InterruptedException {
+        return awaitMatching(queue, prefix, null);
+    }
+
+    // prefix 로 시작하고 (absent 가 있으면) absent 를 포함하지 않는 줄을 기다린다.
+    private static String awaitMatching(BlockingQueue<String> queue, String prefix, String absent) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        long left;
+        while ((left = deadline - System.currentTimeMillis()) > 0) {
+            String line = queue.poll(left, TimeUnit.MILLISECONDS);
+            if (line != null && line.startsWith(prefix) && (absent == null || !line.contains(absent))) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private static final class Session implements WebSocket.Listener {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        private final StringBuilder partial = new StringBuilder();
+        WebSocket socket;
+
+        synchronized void send(String text) {
+            socket.sendText(text, true).join();
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                received.add(partial.toString());
+                partial.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+            received.add("(pong)");
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            received.add("(closed)");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 브라우저 접속용 WebSocket(RFC 6455) 최소 구현. 외부 서버 없이 ClientHandler 가 소켓에서 바로 쓴다.
+ * 텍스트 메시지 하나를 TCP 의 한 줄(여러 줄이면 여러 명령)로 보고, 서버가 보내는 한 줄은 텍스트 프레임 하나가 된다.
+ * 따라서 게임 프로토콜(CHAT:, /vote 등)은 TCP 클라이언트와 완전히 같다.
+ *
+ * 읽기는 연결 스레드 하나가 맡고, ping/close 에 대한 응답 프레임은 controlSink 로 넘겨 송신 경로에서 쓰게 한다.
+ * 서버가 보낸 ping 의 pong 은 따로 올리지 않고 onFrame 으로 활동만 알린다.
+ */
+final class WebSocketSession {
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_HANDSHAKE_BYTES = 8 * 1024;
+
+    private static final int OP_CONTINUATION = 0x0;
+    private static final int OP_TEXT = 0x1;
+    private static final int OP_BINARY = 0x2;
+    private static final int OP_CLOSE = 0x8;
+    static final int OP_PING = 0x9;
+    private static final int OP_PONG = 0xA;
+
+    static final ByteBuffer BAD_REQUEST = ByteBuffer.wrap(
+            "HTTP/1.1 400 Bad Request\r\nConnection: close\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1))
+            .asReadOnlyBuffer();
+
+    private final InputStream in;
+    private final int maxMessageBytes;
+    private final Consumer<ByteBuffer> controlSink;
+    // 프레임을 받을 때마다 (pong 포함) 불린다. 하트비트의 활동 표시용.
+    private final Runnable onFrame;
+    private final Deque<String> pendingLines = new ArrayDeque<>();
+    // 페이로드를 푸는 동안만 빌리는 작업 버퍼
+    private final BufferPool chunks;
+
+    WebSocketSession(InputStream in, int maxMessageBytes, BufferPool chunks, Consumer<ByteBuffer> controlSink, Runnable onFrame) {
+        this.in = in;
+        this.maxMessageBytes = maxMessageBytes;
+        this.chunks = chunks;
+        this.controlSink = controlSink;
+        this.onFrame = onFrame;
+    }
+
+    /**
+     * HTTP Upgrade 요청을 읽고 돌려줄 101 응답을 만든다. WebSocket 요청이 아니면 IOException.
+     */
+    ByteBuffer handshake() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        String requestLine = null;
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int total = 0;
+        int c;
+        while ((c = in.read()) != -1) {
+            if (++total > MAX_HANDSHAKE_BYTES) {
+                throw new IOException("WebSocket 핸드셰이크가 너무 깁니다.");
+            }
+            if (c == '\r') continue;
+            if (c != '\n') {
+                line.write(c);
+                continue;
+            }
+            String text = new String(line.toByteArray(), StandardCharsets.ISO_8859_1);
+            line.reset();
+            if (text.isEmpty()) break;
+            if (requestLine == null) {
+                requestLine = text;
+                continue;
+            }
+            int colon = text.indexOf(':');
+            if (colon > 0) {
+                headers.put(text.substring(0, colon).trim().toLowerCase(), text.substring(colon + 1).trim());
+            }
+        }
+        if (c == -1) {
+            throw new EOFException("WebSocket 핸드셰이크 중 연결이 끊겼습니다.");
+        }
+
+        String key = headers.get("sec-websocket-key");
+        if (requestLine == null || !requestLine.startsWith("GET ")
+                || !"websocket".equalsIgnoreCase(headers.get("upgrade")) || key == null) {
+            throw new IOException("WebSocket 요청이 아닙니다: " + requestLine);
+        }
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        return ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * 다음 한 줄. 상대가 닫았으면 null.
+     */
+    String readLine() throws IOException {
+        while (pendingLines.isEmpty()) {
+            String message = readMessage();
+            if (message == null) {
+                return null;
+            }
+            for (String l : message.split("\r?\n")) {
+                pendingLines.add(l);
+            }
+        }
+        return pendingLines.poll();
+    }
+
+    // 조각난 프레임을 모아 메시지 하나를 돌려준다. maxMessageBytes 를 넘는 부분은 읽어서 버린다.
+    private String readMessage() throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream(128);
+        while (true) {
+            int b0 = in.read();
+            if (b0 == -1) {
+                return null;
+            }
+            int b1 = readByte();
+            onFrame.run();
+            boolean fin = (b0 & 0x80) != 0;
+            int opcode = b0 & 0x0F;
+            if ((b1 & 0x80) == 0) {
+                throw new IOException("마스킹되지 않은 클라이언트 프레임");
+            }
+            long length = b1 & 0x7F;
+            if (length == 126) {
+                length = (readByte() << 8) | readByte();
+            } else if (length == 127) {
+                length = 0;
+                for (int i = 0; i < 8; i++) {
+                    length = (length << 8) | readByte();
+                }
+            }
+            byte[] mask = {(byte) readByte(), (byte) readByte(), (byte) readByte(), (byte) readByte()};
+
+            if (opcode >= OP_CLOSE) {
+                if (length > 125) {
+                    throw new IOException("제어 프레임이 너무 깁니다.");
+                }
+                ByteArrayOutputStream payload = new ByteArrayOutputStream((int) length);
+                readPayload(length, mask, payload, 125);
+                if (opcode == OP_CLOSE) {
+                    // 받은 상태 코드를 그대로 돌려주고 끝낸다.
+                    byte[] status = payload.toByteArray();
+                    controlSink.accept(frame(OP_CLOSE, status.length >= 2 ? new byte[]{status[0], status[1]} : new byte[0]));
+                    return null;
+                }
+                if (opcode == OP_PING) {
+                    controlSink.accept(frame(OP_PONG, payload.toByteArray()));
+                }
+                continue;
+            }
+            if (opcode != OP_TEXT && opcode != OP_BINARY && opcode != OP_CONTINUATION) {
+                throw new IOException("알 수 없는 opcode: " + opcode);
+            }
+            readPayload(length, mask, message, maxMessageBytes);
+            if (fin) {
+                return new String(message.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private void readPayload(long length, byte[] mask, ByteArrayOutputStream sink, int limit) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        ByteBuffer borrowed = chunks.acquire();
+        try {
+            byte[] chunk = borrowed.array();
+            long offset = 0;
+            while (offset < length) {
+                int n = in.read(chunk, 0, (int) Math.min(chunk.length, length - offset));
+                if (n == -1) {
+                    throw new EOFException("프레임 도중 연결이 끊겼습니다.");
+                }
+                for (int i = 0; i < n; i++) {
+                    chunk[i] ^= mask[(int) ((offset + i) & 3)];
+                }
+                int keep = Math.min(n, limit - sink.size());
+                if (keep > 0) {
+                    sink.write(chunk, 0, keep);
+                }
+                offset += n;
+            }
+        } finally {
+            chunks.release(borrowed);
+        }
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("프레임 도중 연결이 끊겼습니다.");
+        }
+        return b;
+    }
+
+    /**
+     * 길이 length 인 서버→클라이언트 텍스트 프레임의 머리. 본문은 공유 프레임 뷰를 그대로 이어 쓴다.
+     */
+    static ByteBuffer textHeader(int length) {
+        ByteBuffer header = ByteBuffer.allocate(length < 126 ? 2 : length <= 0xFFFF ? 4 : 10);
+        header.put((byte) (0x80 | OP_TEXT));
+        if (length < 126) {
+            header.put((byte) length);
+        } else if (length <= 0xFFFF) {
+            header.put((byte) 126).putShort((short) length);
+        } else {
+            header.put((byte) 127).putLong(length);
+        }
+        return header.flip();
+    }
+
+    static ByteBuffer frame(int opcode, byte[] payload) {
+        ByteBuffer frame = ByteBuffer.allocate(2 + payload.length);
+        frame.put((byte) (0x80 | opcode)).put((byte) payload.length).put(payload);
+        return frame.flip();
+    }
+
+    /**
+     * 접속 허용 제어로 거절할 때 보내는 응답. 브라우저 쪽에서 이유를 볼 수 있게 본문에 넣는다.
+     */
+    static ByteBuffer serviceUnavailable(String reason) {
+        byte[] body = reason.getBytes(StandardCharsets.UTF_8);
+        byte[] head = ("HTTP/1.1 503 Service Unavailable\r\nConnection: close\r\nRetry-After: 5\r\n"
+                + "Content-Type: text/plain; charset=utf-8\r\nContent-Length: " + body.length + "\r\n\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1);
+        return ByteBuffer.allocate(head.length + body.length).put(head).put(body).flip();
+    }
+
+    static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + ACCEPT_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}